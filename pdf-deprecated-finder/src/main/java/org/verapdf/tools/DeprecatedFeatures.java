@@ -1,44 +1,77 @@
 package org.verapdf.tools;
 
+import org.apache.pdfbox.cos.COSDictionary;
+
 import java.util.ArrayList;
 import java.util.List;
 
 public class DeprecatedFeatures {
 
-	List<Long> procSet = new ArrayList<>();
-	List<Long> CIDSet = new ArrayList<>();
-	List<Long> charSet = new ArrayList<>();
-	List<Long> name = new ArrayList<>();
+	ObjectNumberSet procSet = new ObjectNumberSet();
+	ObjectNumberSet CIDSet = new ObjectNumberSet();
+	ObjectNumberSet charSet = new ObjectNumberSet();
+	ObjectNumberSet name = new ObjectNumberSet();
+
+	/**
+	 * Dictionaries found by the scan, deprecated keys are removed from them and from their resources
+	 * without walking the object table again.
+	 */
+	final List<COSDictionary> procSetDictionaries = new ArrayList<>();
+	final List<COSDictionary> charSetDictionaries = new ArrayList<>();
+	final List<COSDictionary> nameDictionaries = new ArrayList<>();
+
+	public boolean isEmpty() {
+		return procSet.isEmpty() && CIDSet.isEmpty() && charSet.isEmpty() && name.isEmpty();
+	}
+
+	void addProcSet(long objectNumber, COSDictionary dictionary) {
+		procSet.add(objectNumber);
+		procSetDictionaries.add(dictionary);
+	}
+
+	void addCIDSet(long objectNumber) {
+		CIDSet.add(objectNumber);
+	}
+
+	void addCharSet(long objectNumber, COSDictionary dictionary) {
+		charSet.add(objectNumber);
+		charSetDictionaries.add(dictionary);
+	}
+
+	void addName(long objectNumber, COSDictionary dictionary) {
+		name.add(objectNumber);
+		nameDictionaries.add(dictionary);
+	}
 
-	public List<Long> getProcSet() {
+	public ObjectNumberSet getProcSet() {
 		return procSet;
 	}
 
-	public void setProcSet(List<Long> procSet) {
+	public void setProcSet(ObjectNumberSet procSet) {
 		this.procSet = procSet;
 	}
 
-	public List<Long> getCIDSet() {
+	public ObjectNumberSet getCIDSet() {
 		return CIDSet;
 	}
 
-	public void setCIDSet(List<Long> CIDSet) {
+	public void setCIDSet(ObjectNumberSet CIDSet) {
 		this.CIDSet = CIDSet;
 	}
 
-	public List<Long> getCharSet() {
+	public ObjectNumberSet getCharSet() {
 		return charSet;
 	}
 
-	public void setCharSet(List<Long> charSet) {
+	public void setCharSet(ObjectNumberSet charSet) {
 		this.charSet = charSet;
 	}
 
-	public List<Long> getName() {
+	public ObjectNumberSet getName() {
 		return name;
 	}
 
-	public void setName(List<Long> name) {
+	public void setName(ObjectNumberSet name) {
 		this.name = name;
 	}
 }
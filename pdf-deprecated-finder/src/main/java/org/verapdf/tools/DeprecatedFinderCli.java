@@ -1,6 +1,7 @@
 package org.verapdf.tools;
 
 import org.apache.pdfbox.cos.*;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDResources;
@@ -14,20 +15,52 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static org.verapdf.tools.Utils.nameCheck;
+import static org.verapdf.tools.Utils.hasDeprecatedName;
 
 public class DeprecatedFinderCli {
-	private static final String HELP = "Arguments: inputFile";
+	private static final String THREADS = "--threads";
+	private static final String MEMORY = "--memory";
+	private static final long DEFAULT_MEMORY_MEGABYTES = 64;
+	private static final String HELP = "Arguments: inputFile [--threads N] [--memory MB]\n" +
+	                                   "  --threads N  number of files processed in parallel, 1 by default\n" +
+	                                   "  --memory MB  main memory every file may use for stream buffers, " + DEFAULT_MEMORY_MEGABYTES + " by default.\n" +
+	                                   "               Larger streams are buffered in temporary files, parsed objects are not limited\n" +
+	                                   "Fixed files are written to fixed_files with the directory structure of the input";
 
 	public static void main(String[] args) throws IOException {
 		if (args.length < 1) {
 			System.out.println(HELP);
 			return;
 		}
-		int counter = 0;
+		int threads = 1;
+		long memoryMegabytes = DEFAULT_MEMORY_MEGABYTES;
+		for (int i = 1; i < args.length; i += 2) {
+			if (i + 1 >= args.length || (!THREADS.equals(args[i]) && !MEMORY.equals(args[i]))) {
+				System.out.println(HELP);
+				return;
+			}
+			try {
+				if (THREADS.equals(args[i])) {
+					threads = Integer.parseInt(args[i + 1]);
+				} else {
+					memoryMegabytes = Long.parseLong(args[i + 1]);
+				}
+			} catch (NumberFormatException e) {
+				System.out.println(HELP);
+				return;
+			}
+		}
+		if (threads < 1 || memoryMegabytes < 1) {
+			System.out.println(HELP);
+			return;
+		}
 		Path path = Paths.get(args[0]);
 		Path finalPath = Paths.get(System.getProperty("user.dir") + "\\fixed_files");
 		if (!Files.exists(finalPath)) {
@@ -38,6 +71,7 @@ public class DeprecatedFinderCli {
 		try (Stream<Path> subPaths = Files.walk(path)) {
 			pathes = subPaths.filter(Files::isRegularFile)
 			                 .map(Path::toString)
+			                 .sorted()
 			                 .collect(Collectors.toList());
 		} catch (IOException e) {
 			e.printStackTrace();
@@ -49,200 +83,169 @@ public class DeprecatedFinderCli {
 				filesList.add(new File(str));
 			}
 		}
-		for (File file : filesList) {
-			try (PDDocument pdDocument = PDDocument.load(file)) {
-				if (pdDocument.isEncrypted()) {
-					Utils.removeAllSecurity(pdDocument);
-				}
-				DeprecatedFeatures deprecatedFeatures = new DeprecatedFeatures();
-				deprecatedFinder(pdDocument, deprecatedFeatures);
-				if (!deprecatedFeatures.procSet.isEmpty() || !deprecatedFeatures.CIDSet.isEmpty() || !deprecatedFeatures.charSet.isEmpty()
-				    || !deprecatedFeatures.name.isEmpty()) {
-					System.out.println(file.getPath());
-					List<Long> procSet = deprecatedFeatures.procSet;
-					if (!procSet.isEmpty()) {
-						System.out.println("ProcSet is in these objects: " + procSet);
-						removeProcSet(pdDocument, procSet);
-					}
-					List<Long> CIDSet = deprecatedFeatures.CIDSet;
-					if (!CIDSet.isEmpty()) {
-						System.out.println("CIDSet is in these objects: " + deprecatedFeatures.CIDSet);
-						removeCIDSet(pdDocument, CIDSet);
-					}
-					List<Long> charSet = deprecatedFeatures.charSet;
-					if (!charSet.isEmpty()) {
-						System.out.println("CharSet is in these objects: " + charSet);
-						removeCharSet(pdDocument, charSet);
-					}
-					List<Long> name = deprecatedFeatures.name;
-					if (!name.isEmpty()) {
-						System.out.println("Name is in these objects: " + name);
-						removeName(pdDocument, name);
-
-					}
-					counter++;
-					System.out.println("");
-					pdDocument.save(new File(String.valueOf(finalPath), "fix_" + file.getName()));
-
-				}
-
-			} catch (IOException e) {
-				e.printStackTrace();
+		MemoryUsageSetting memoryUsageSetting = MemoryUsageSetting.setupMixed(memoryMegabytes * 1024 * 1024);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<FixResult>> results = new ArrayList<>();
+			for (File file : filesList) {
+				Path outputFile = getOutputFile(path, file, finalPath);
+				results.add(executor.submit(() -> fixFile(file, outputFile, memoryUsageSetting)));
 			}
+			printResults(results);
+		} finally {
+			executor.shutdownNow();
 		}
-		System.out.println("There is " + counter + " files with deprecated features");
 	}
 
-
-	public static void deprecatedFinder(PDDocument document, DeprecatedFeatures deprecatedFeatures) {
-		COSDocument cosDocument = document.getDocument();
-		List<COSObject> cosObjects = cosDocument.getObjects();
-		for (COSObject object : cosObjects) {
-			COSBase baseObject = object.getObject();
-
-			procSetSearch(deprecatedFeatures.getProcSet(), baseObject);
-			CIDSetSearch(deprecatedFeatures.getCIDSet(), baseObject);
-			charSetSearch(deprecatedFeatures.getCharSet(), baseObject);
-			nameSearch(deprecatedFeatures.getName(), baseObject);
-
-		}
-	}
-
-	private static void procSetSearch(List<Long> list, COSBase baseObject) {
-		if (baseObject instanceof COSStream) {
-			COSStream stream = (COSStream) baseObject;
-			if (stream.containsKey(COSName.PROC_SET) && !list.contains(stream.getKey().getNumber())) {
-				list.add(stream.getKey().getNumber());
+	/**
+	 * Prints reports in the order of files and the totals of all files.
+	 */
+	private static void printResults(List<Future<FixResult>> results) {
+		int counter = 0;
+		int failed = 0;
+		int[] objects = new int[4];
+		int[] files = new int[4];
+		for (Future<FixResult> future : results) {
+			FixResult result;
+			try {
+				result = future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				result = new FixResult(e);
 			}
-			COSDictionary dict = (COSDictionary) stream.getDictionaryObject(COSName.RESOURCES);
-			if (dict != null) {
-				if (dict.containsKey(COSName.PROC_SET) && !list.contains(stream.getKey().getNumber())) {
-					list.add(stream.getKey().getNumber());
-				}
+			if (result.getException() != null) {
+				result.getException().printStackTrace();
+				failed++;
+				continue;
 			}
-		}
-		if (baseObject instanceof COSDictionary) {
-			COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-			if (dict != null) {
-				if (dict.containsKey(COSName.PROC_SET) && !list.contains(baseObject.getKey().getNumber())) {
-					list.add(baseObject.getKey().getNumber());
-				}
+			if (result.isFixed()) {
+				System.out.print(result.getReport());
+				counter++;
 			}
-			if (((COSDictionary) baseObject).containsKey(COSName.PROC_SET) &&
-			    !list.contains(baseObject.getKey().getNumber())) {
-				list.add(baseObject.getKey().getNumber());
+			int[] counts = {result.getProcSetCount(), result.getCIDSetCount(), result.getCharSetCount(), result.getNameCount()};
+			for (int i = 0; i < counts.length; ++i) {
+				objects[i] += counts[i];
+				if (counts[i] > 0) {
+					files[i]++;
+				}
 			}
 		}
+		System.out.println("There is " + counter + " files with deprecated features");
+		String[] features = {"ProcSet", "CIDSet", "CharSet", "Name"};
+		for (int i = 0; i < features.length; ++i) {
+			System.out.println(features[i] + ": " + objects[i] + " objects in " + files[i] + " files");
+		}
+		System.out.println("Files checked: " + results.size() + ", fixed: " + counter + ", failed: " + failed);
 	}
 
-	private static void CIDSetSearch(List<Long> list, COSBase baseObject) {
-		if (baseObject instanceof COSStream) {
-			COSStream stream = (COSStream) baseObject;
-			if (stream.containsKey(COSName.CID_SET)) {
-				if (!list.contains(stream.getKey().getNumber())) {
-					list.add(stream.getKey().getNumber());
-				}
+	/**
+	 * @return path of the fixed file in the output directory, it keeps the location of the file relative to the input,
+	 * so files with the same name in different directories do not overwrite each other
+	 */
+	private static Path getOutputFile(Path input, File file, Path finalPath) {
+		Path relativePath = Files.isDirectory(input) ? input.relativize(file.toPath()) : file.toPath().getFileName();
+		Path directory = relativePath.getParent() == null ? finalPath : finalPath.resolve(relativePath.getParent());
+		return directory.resolve("fix_" + file.getName());
+	}
+
+	private static FixResult fixFile(File file, Path outputFile, MemoryUsageSetting memoryUsageSetting) {
+		try (PDDocument pdDocument = PDDocument.load(file, memoryUsageSetting)) {
+			if (pdDocument.isEncrypted()) {
+				Utils.removeAllSecurity(pdDocument);
 			}
-			COSDictionary cosDictionary = (COSDictionary) (stream.getDictionaryObject(COSName.RESOURCES));
-			if (cosDictionary != null) {
-				if (cosDictionary.containsKey(COSName.CID_SET) && !list.contains(stream.getKey().getNumber())) {
-					list.add(stream.getKey().getNumber());
-				}
+			DeprecatedFeatures deprecatedFeatures = new DeprecatedFeatures();
+			deprecatedFinder(pdDocument, deprecatedFeatures);
+			if (deprecatedFeatures.isEmpty()) {
+				return new FixResult("", deprecatedFeatures);
 			}
-		}
-		if (baseObject instanceof COSDictionary) {
-			COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-			if (dict != null) {
-				if (dict.containsKey(COSName.CID_SET) && !list.contains(baseObject.getKey().getNumber())) {
-					list.add(baseObject.getKey().getNumber());
-				}
+			StringBuilder report = new StringBuilder();
+			report.append(file.getPath()).append(System.lineSeparator());
+			if (!deprecatedFeatures.procSet.isEmpty()) {
+				report.append("ProcSet is in these objects: ").append(deprecatedFeatures.procSet).append(System.lineSeparator());
 			}
-			if (((COSDictionary) baseObject).containsKey(COSName.CID_SET)) {
-				if (!list.contains(baseObject.getKey().getNumber())) {
-					list.add(baseObject.getKey().getNumber());
-				}
+			if (!deprecatedFeatures.CIDSet.isEmpty()) {
+				report.append("CIDSet is in these objects: ").append(deprecatedFeatures.CIDSet).append(System.lineSeparator());
+				removeCIDSet(pdDocument, deprecatedFeatures.CIDSet);
 			}
-		}
-	}
-
-	private static void charSetSearch(List<Long> list, COSBase baseObject) {
-		if (baseObject instanceof COSStream) {
-			COSStream stream = (COSStream) baseObject;
-			if (stream.containsKey(COSName.CHAR_SET)) {
-				if (!list.contains(stream.getKey().getNumber())) {
-					list.add(stream.getKey().getNumber());
-				}
+			if (!deprecatedFeatures.charSet.isEmpty()) {
+				report.append("CharSet is in these objects: ").append(deprecatedFeatures.charSet).append(System.lineSeparator());
 			}
-			COSDictionary cosDictionary = (COSDictionary) (stream.getDictionaryObject(COSName.RESOURCES));
-			if (cosDictionary != null) {
-				if (cosDictionary.containsKey(COSName.CHAR_SET)) {
-					if (!list.contains(stream.getKey().getNumber())) {
-						list.add(stream.getKey().getNumber());
-					}
-				}
+			if (!deprecatedFeatures.name.isEmpty()) {
+				report.append("Name is in these objects: ").append(deprecatedFeatures.name).append(System.lineSeparator());
 			}
+			removeDeprecatedKeys(deprecatedFeatures);
+			report.append(System.lineSeparator());
+			Files.createDirectories(outputFile.getParent());
+			pdDocument.save(outputFile.toFile());
+			return new FixResult(report.toString(), deprecatedFeatures);
+		} catch (IOException | RuntimeException e) {
+			return new FixResult(e);
 		}
-		if (baseObject instanceof COSDictionary) {
-			COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-			if (dict != null) {
-				if (dict.containsKey(COSName.CHAR_SET) && !list.contains(baseObject.getKey().getNumber())) {
-					list.add(baseObject.getKey().getNumber());
-				}
-			}
-			COSDictionary cosDictionary = (COSDictionary) baseObject;
-			if (cosDictionary.containsKey(COSName.CHAR_SET)) {
-				if (!list.contains(baseObject.getKey().getNumber())) {
-					list.add(baseObject.getKey().getNumber());
-				}
+	}
+
+	/**
+	 * Classifies every object of the document in a single walk over the object table and records
+	 * all deprecated keys it contains together with the dictionaries to remove them from.
+	 */
+	public static void deprecatedFinder(PDDocument document, DeprecatedFeatures deprecatedFeatures) {
+		COSDocument cosDocument = document.getDocument();
+		for (COSObject object : cosDocument.getObjects()) {
+			COSBase baseObject = object.getObject();
+			if (baseObject instanceof COSDictionary) {
+				classify(deprecatedFeatures, object.getObjectNumber(), (COSDictionary) baseObject);
 			}
 		}
 	}
 
-	private static void nameSearch(List<Long> list, COSBase baseObject) {
-		if (baseObject instanceof COSStream) {
-			COSStream stream = (COSStream) baseObject;
-			nameCheck(list, stream);
-			COSDictionary cosDictionary = (COSDictionary) (stream.getDictionaryObject(COSName.RESOURCES));
-			if (cosDictionary != null) {
-				nameCheck(list, cosDictionary);
-			}
+	private static void classify(DeprecatedFeatures deprecatedFeatures, long objectNumber, COSDictionary dictionary) {
+		COSBase resourcesObject = dictionary.getDictionaryObject(COSName.RESOURCES);
+		COSDictionary resources = resourcesObject instanceof COSDictionary ? (COSDictionary) resourcesObject : null;
+		if (containsKey(dictionary, resources, COSName.PROC_SET)) {
+			deprecatedFeatures.addProcSet(objectNumber, dictionary);
 		}
-		if (baseObject instanceof COSDictionary) {
-			COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-			if (dict != null) {
-				nameCheck(list, dict);
-			}
-			dict = (COSDictionary) baseObject;
-			nameCheck(list, dict);
+		if (containsKey(dictionary, resources, COSName.CID_SET)) {
+			deprecatedFeatures.addCIDSet(objectNumber);
+		}
+		if (containsKey(dictionary, resources, COSName.CHAR_SET)) {
+			deprecatedFeatures.addCharSet(objectNumber, dictionary);
+		}
+		if (hasDeprecatedName(dictionary)) {
+			deprecatedFeatures.addName(objectNumber, dictionary);
+		}
+		if (resources != null && hasDeprecatedName(resources)) {
+			COSBase resourcesItem = dictionary.getItem(COSName.RESOURCES);
+			deprecatedFeatures.addName(resourcesItem instanceof COSObject ?
+			                           ((COSObject) resourcesItem).getObjectNumber() : objectNumber, resources);
 		}
 	}
 
-	public static void removeProcSet(PDDocument document, List<Long> list) {
-		COSDocument cosDocument = document.getDocument();
-		for (COSObject object : cosDocument.getObjects()) {
-			if (list.contains(object.getObjectNumber())) {
-				COSBase baseObject = object.getObject();
-				if (baseObject instanceof COSStream) {
-					COSStream stream = (COSStream) baseObject;
-					stream.removeItem(COSName.PROC_SET);
-					COSDictionary dict = (COSDictionary) stream.getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						stream.removeItem(COSName.PROC_SET);
-					}
-				}
-				if (baseObject instanceof COSDictionary) {
-					((COSDictionary) baseObject).removeItem(COSName.PROC_SET);
-					COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						dict.removeItem(COSName.PROC_SET
-						               );
-					}
-				}
+	private static boolean containsKey(COSDictionary dictionary, COSDictionary resources, COSName key) {
+		return dictionary.containsKey(key) || (resources != null && resources.containsKey(key));
+	}
+
+	/**
+	 * Removes ProcSet, CharSet and Name entries from the dictionaries recorded by
+	 * {@link #deprecatedFinder(PDDocument, DeprecatedFeatures)} and from their resources.
+	 */
+	public static void removeDeprecatedKeys(DeprecatedFeatures deprecatedFeatures) {
+		removeKey(deprecatedFeatures.procSetDictionaries, COSName.PROC_SET);
+		removeKey(deprecatedFeatures.charSetDictionaries, COSName.CHAR_SET);
+		removeKey(deprecatedFeatures.nameDictionaries, COSName.NAME);
+	}
+
+	private static void removeKey(List<COSDictionary> dictionaries, COSName key) {
+		for (COSDictionary dictionary : dictionaries) {
+			dictionary.removeItem(key);
+			COSBase resources = dictionary.getDictionaryObject(COSName.RESOURCES);
+			if (resources instanceof COSDictionary) {
+				((COSDictionary) resources).removeItem(key);
 			}
 		}
 	}
 
-	public static void removeCIDSet(PDDocument document, List<Long> list) throws IOException {
+	public static void removeCIDSet(PDDocument document, ObjectNumberSet objectNumbers) throws IOException {
 		for (PDPage page : document.getPages()) {
 			PDResources resources = page.getResources();
 			PDFont font;
@@ -253,54 +256,4 @@ public class DeprecatedFinderCli {
 			}
 		}
 	}
-
-	public static void removeCharSet(PDDocument document, List<Long> list) throws IOException {
-		COSDocument cosDocument = document.getDocument();
-		for (COSObject object : cosDocument.getObjects()) {
-			if (list.contains(object.getObjectNumber())) {
-				COSBase baseObject = object.getObject();
-				if (baseObject instanceof COSStream) {
-					COSStream stream = (COSStream) baseObject;
-					stream.removeItem(COSName.CHAR_SET);
-					COSDictionary dict = (COSDictionary) stream.getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						stream.removeItem(COSName.CHAR_SET);
-					}
-				}
-				if (baseObject instanceof COSDictionary) {
-					((COSDictionary) baseObject).removeItem(COSName.CHAR_SET);
-					COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						dict.removeItem(COSName.CHAR_SET);
-					}
-				}
-			}
-		}
-	}
-
-	public static void removeName(PDDocument document, List<Long> list) {
-		COSDocument cosDocument = document.getDocument();
-		for (COSObject object : cosDocument.getObjects()) {
-			if (list.contains(object.getObjectNumber())) {
-				COSBase baseObject = object.getObject();
-				if (baseObject instanceof COSStream) {
-					COSStream stream = (COSStream) baseObject;
-					stream.removeItem(COSName.NAME);
-					COSDictionary dict = (COSDictionary) stream.getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						stream.removeItem(COSName.NAME);
-					}
-				}
-				if (baseObject instanceof COSDictionary) {
-					((COSDictionary) baseObject).removeItem(COSName.NAME);
-					COSDictionary dict = (COSDictionary) ((COSDictionary) baseObject).getDictionaryObject(COSName.RESOURCES);
-					if (dict != null) {
-						dict.removeItem(COSName.NAME);
-					}
-				}
-			}
-		}
-	}
 }
-
-
@@ -0,0 +1,64 @@
+package org.verapdf.tools;
+
+/**
+ * Outcome of checking and fixing a single file. Keeps only the printed report and the counts,
+ * so the document can be released as soon as the file is processed.
+ */
+public class FixResult {
+
+	private final String report;
+	private final int procSetCount;
+	private final int CIDSetCount;
+	private final int charSetCount;
+	private final int nameCount;
+	private final Exception exception;
+
+	FixResult(String report, DeprecatedFeatures deprecatedFeatures) {
+		this.report = report;
+		this.procSetCount = deprecatedFeatures.procSet.size();
+		this.CIDSetCount = deprecatedFeatures.CIDSet.size();
+		this.charSetCount = deprecatedFeatures.charSet.size();
+		this.nameCount = deprecatedFeatures.name.size();
+		this.exception = null;
+	}
+
+	FixResult(Exception exception) {
+		this.report = "";
+		this.procSetCount = 0;
+		this.CIDSetCount = 0;
+		this.charSetCount = 0;
+		this.nameCount = 0;
+		this.exception = exception;
+	}
+
+	public String getReport() {
+		return report;
+	}
+
+	public boolean isFixed() {
+		return exception == null && !report.isEmpty();
+	}
+
+	public int getProcSetCount() {
+		return procSetCount;
+	}
+
+	public int getCIDSetCount() {
+		return CIDSetCount;
+	}
+
+	public int getCharSetCount() {
+		return charSetCount;
+	}
+
+	public int getNameCount() {
+		return nameCount;
+	}
+
+	/**
+	 * @return exception the file failed with, or null if it has been processed
+	 */
+	public Exception getException() {
+		return exception;
+	}
+}
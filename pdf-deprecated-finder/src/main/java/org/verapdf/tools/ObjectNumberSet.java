@@ -0,0 +1,100 @@
+package org.verapdf.tools;
+
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.TreeSet;
+
+/**
+ * Set of object numbers backed by a bit set indexed by object number, so insertion and lookup
+ * take constant time and iteration is in ascending order.
+ */
+public class ObjectNumberSet implements Iterable<Long> {
+
+	/**
+	 * Largest object number allowed by the implementation limits of PDF.
+	 */
+	private static final int MAX_OBJECT_NUMBER = 8_388_607;
+
+	private final BitSet numbers = new BitSet();
+	/**
+	 * Negative numbers and numbers above {@link #MAX_OBJECT_NUMBER}. They are not valid in PDF, but should
+	 * neither break the scan of a damaged file nor make the bit set allocate memory up to the number.
+	 */
+	private final TreeSet<Long> invalidNumbers = new TreeSet<>();
+
+	/**
+	 * @return true if the number has not been in the set
+	 */
+	public boolean add(long objectNumber) {
+		if (isInvalid(objectNumber)) {
+			return invalidNumbers.add(objectNumber);
+		}
+		int index = (int) objectNumber;
+		if (numbers.get(index)) {
+			return false;
+		}
+		numbers.set(index);
+		return true;
+	}
+
+	public boolean contains(long objectNumber) {
+		if (isInvalid(objectNumber)) {
+			return invalidNumbers.contains(objectNumber);
+		}
+		return numbers.get((int) objectNumber);
+	}
+
+	private static boolean isInvalid(long objectNumber) {
+		return objectNumber < 0 || objectNumber > MAX_OBJECT_NUMBER;
+	}
+
+	public boolean isEmpty() {
+		return numbers.isEmpty() && invalidNumbers.isEmpty();
+	}
+
+	public int size() {
+		return numbers.cardinality() + invalidNumbers.size();
+	}
+
+	@Override
+	public Iterator<Long> iterator() {
+		Iterator<Long> negative = invalidNumbers.headSet(0L).iterator();
+		Iterator<Long> large = invalidNumbers.tailSet(0L).iterator();
+		return new Iterator<Long>() {
+			private int next = numbers.nextSetBit(0);
+
+			@Override
+			public boolean hasNext() {
+				return negative.hasNext() || next >= 0 || large.hasNext();
+			}
+
+			@Override
+			public Long next() {
+				if (negative.hasNext()) {
+					return negative.next();
+				}
+				if (next < 0) {
+					return large.next();
+				}
+				long res = next;
+				next = numbers.nextSetBit(next + 1);
+				return res;
+			}
+		};
+	}
+
+	/**
+	 * @return numbers in ascending order in the same format as {@link java.util.List#toString()}
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder("[");
+		for (Long number : this) {
+			if (builder.length() > 1) {
+				builder.append(", ");
+			}
+			builder.append(number);
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -1,11 +1,10 @@
 package org.verapdf.tools;
 
+import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 
-import java.util.List;
-
 public class Utils {
 
 	public static void removeAllSecurity(PDDocument pdDocument) {
@@ -16,19 +15,16 @@ public class Utils {
 		}
 	}
 
-	public static void nameCheck(List<Long> list, COSDictionary dictionary) {
-		if (dictionary.containsKey(COSName.NAME)) {
-			if (COSName.TYPE1.equals(dictionary.getDictionaryObject(COSName.SUBTYPE)) ||
-			    (COSName.TYPE3).equals(dictionary.getDictionaryObject(COSName.SUBTYPE)) ||
-			    (COSName.IMAGE).equals(dictionary.getDictionaryObject(COSName.SUBTYPE)) ||
-			    (COSName.FORM).equals(dictionary.getDictionaryObject(COSName.SUBTYPE)) ||
-			    (COSName.TRUE_TYPE).equals(dictionary.getDictionaryObject(COSName.SUBTYPE))) {
-
-				if (!list.contains(dictionary.getKey().getNumber())) {
-					list.add(dictionary.getKey().getNumber());
-				}
-			}
+	/**
+	 * @return true if the dictionary is a font, image or form XObject with the deprecated Name entry
+	 */
+	public static boolean hasDeprecatedName(COSDictionary dictionary) {
+		if (!dictionary.containsKey(COSName.NAME)) {
+			return false;
 		}
+		COSBase subtype = dictionary.getDictionaryObject(COSName.SUBTYPE);
+		return COSName.TYPE1.equals(subtype) || COSName.TYPE3.equals(subtype) || COSName.IMAGE.equals(subtype) ||
+		       COSName.FORM.equals(subtype) || COSName.TRUE_TYPE.equals(subtype);
 	}
 
 }
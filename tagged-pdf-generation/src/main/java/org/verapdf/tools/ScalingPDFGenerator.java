@@ -0,0 +1,342 @@
+package org.verapdf.tools;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDPageContentStream.AppendMode;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDMarkInfo;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureElement;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureNode;
+import org.apache.pdfbox.pdmodel.documentinterchange.logicalstructure.PDStructureTreeRoot;
+import org.apache.pdfbox.pdmodel.documentinterchange.markedcontent.PDMarkedContent;
+import org.apache.pdfbox.pdmodel.documentinterchange.markedcontent.PDPropertyList;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts.FontName;
+import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.pdmodel.interactive.action.PDActionURI;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAnnotationLink;
+
+/**
+ * Generates tagged documents of controlled size for validation benchmarks. Every page gets
+ * the given number of structure elements, nested in chains of the given depth: grouping
+ * elements on the upper levels and a content element holding marked text at the bottom.
+ * Pages also get images, each tagged as a Figure, and link annotations.
+ * <p>
+ * Page, element and depth counts accept comma separated values, one document is generated
+ * for every combination, so a single run produces a scaling series. The same seed always
+ * produces the same documents.
+ * <p>
+ * Fonts are not embedded standard 14 fonts and annotations are not in the structure tree,
+ * the documents are meant to be validated, not to be compliant.
+ */
+public class ScalingPDFGenerator {
+    private static final float FONT_SIZE = 10;
+    private static final float LINE_HEIGHT = 12;
+    private static final float MARGIN = 36;
+    private static final int IMAGE_SIZE = 32;
+    private static final float ANNOTATION_SIZE = 20;
+
+    private final List<Integer> pages = new ArrayList<>();
+    private final List<Integer> elements = new ArrayList<>();
+    private final List<Integer> depths = new ArrayList<>();
+    private int fonts = 4;
+    private int images = 1;
+    private int annotations = 2;
+    private long seed = 0;
+    private File folder = new File("generated_files");
+
+    public static void main(String[] args) {
+        try {
+            ScalingPDFGenerator generator = fromArgs(args);
+            generator.run();
+        } catch (IllegalArgumentException ex) {
+            System.err.println(ex.getMessage());
+            System.err.println("Usage: --pages N[,N...] --elements M[,M...] --depth D[,D...] "
+                    + "[--fonts F] [--images I] [--annotations A] [--seed S] [--output FOLDER]");
+            System.exit(1);
+        } catch (IOException ex) {
+            System.err.println("Error during pdf generation: " + ex.getMessage() + ", proccess stopped.");
+            ex.printStackTrace();
+        }
+    }
+
+    static ScalingPDFGenerator fromArgs(String[] args) {
+        ScalingPDFGenerator generator = new ScalingPDFGenerator();
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value of " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--pages":
+                    generator.pages.addAll(parseCounts(args[i], value, 1));
+                    break;
+                case "--elements":
+                    generator.elements.addAll(parseCounts(args[i], value, 0));
+                    break;
+                case "--depth":
+                    generator.depths.addAll(parseCounts(args[i], value, 1));
+                    break;
+                case "--fonts":
+                    generator.fonts = parseCount(args[i], value, 1);
+                    if (generator.fonts > FontName.values().length) {
+                        throw new IllegalArgumentException("At most " + FontName.values().length + " fonts are available");
+                    }
+                    break;
+                case "--images":
+                    generator.images = parseCount(args[i], value, 0);
+                    break;
+                case "--annotations":
+                    generator.annotations = parseCount(args[i], value, 0);
+                    break;
+                case "--seed":
+                    generator.seed = Long.parseLong(value);
+                    break;
+                case "--output":
+                    generator.folder = new File(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (generator.pages.isEmpty()) {
+            generator.pages.add(Integer.valueOf(1));
+        }
+        if (generator.elements.isEmpty()) {
+            generator.elements.add(Integer.valueOf(10));
+        }
+        if (generator.depths.isEmpty()) {
+            generator.depths.add(Integer.valueOf(2));
+        }
+        return generator;
+    }
+
+    private static List<Integer> parseCounts(String name, String value, int min) {
+        List<Integer> res = new ArrayList<>();
+        for (String count : value.split(",")) {
+            res.add(Integer.valueOf(parseCount(name, count.trim(), min)));
+        }
+        return res;
+    }
+
+    private static int parseCount(String name, String value, int min) {
+        int res;
+        try {
+            res = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Illegal " + name + " argument: " + value);
+        }
+        if (res < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min);
+        }
+        return res;
+    }
+
+    private void run() throws IOException {
+        this.folder.mkdirs();
+        for (Integer pageCount : this.pages) {
+            for (Integer elementCount : this.elements) {
+                for (Integer depth : this.depths) {
+                    File file = new File(this.folder, String.format("scaling_p%d_e%d_d%d_s%d.pdf",
+                            pageCount, elementCount, depth, Long.valueOf(this.seed)));
+                    try (PDDocument document = generate(pageCount.intValue(), elementCount.intValue(), depth.intValue())) {
+                        document.save(file, CompressParameters.NO_COMPRESSION);
+                    }
+                    System.out.println(file.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Every document is generated from a fresh random generator, so its content does not depend
+     * on the other documents of the series.
+     */
+    PDDocument generate(int pageCount, int elementsPerPage, int depth) throws IOException {
+        Random random = new Random(this.seed);
+        PDDocument document = new PDDocument();
+        PDStructureTreeRoot treeRoot = new PDStructureTreeRoot();
+        document.getDocumentCatalog().setStructureTreeRoot(treeRoot);
+        PDMarkInfo markInfo = new PDMarkInfo();
+        markInfo.setMarked(true);
+        document.getDocumentCatalog().setMarkInfo(markInfo);
+        document.getDocumentCatalog().setLanguage("en");
+        setDocumentId(document, random);
+        PDStructureElement root = new PDStructureElement(StructureType.DOCUMENT.getType(), treeRoot);
+        treeRoot.appendKid(root);
+
+        List<PDFont> documentFonts = new ArrayList<>();
+        for (int i = 0; i < this.fonts; ++i) {
+            documentFonts.add(new PDType1Font(FontName.values()[i]));
+        }
+        List<StructureType> groupingTypes = new ArrayList<>();
+        List<StructureType> contentTypes = new ArrayList<>();
+        for (StructureType type : StructureType.values()) {
+            if (type.is2_0() || type == StructureType.DOCUMENT) {
+                continue;
+            }
+            if (type.isGrouping()) {
+                groupingTypes.add(type);
+            } else if (type != StructureType.FIGURE) {
+                contentTypes.add(type);
+            }
+        }
+
+        for (int pageIndex = 0; pageIndex < pageCount; ++pageIndex) {
+            PDPage page = new PDPage(PDRectangle.LETTER);
+            document.addPage(page);
+            PageWriter writer = new PageWriter(document, page, random, documentFonts);
+            try {
+                PDStructureElement section = createStructureElement(StructureType.SECT, root, page);
+                PDStructureElement[] chain = new PDStructureElement[depth];
+                for (int i = 0; i < elementsPerPage; ++i) {
+                    int level = i % depth;
+                    boolean isLeaf = level == depth - 1 || i == elementsPerPage - 1;
+                    StructureType type = isLeaf ? pick(contentTypes, random) : pick(groupingTypes, random);
+                    chain[level] = createStructureElement(type, level == 0 ? section : chain[level - 1], page);
+                    if (isLeaf) {
+                        chain[level].appendKid(writer.text(randomText(random)));
+                    }
+                }
+                for (int i = 0; i < this.images; ++i) {
+                    PDStructureElement figure = createStructureElement(StructureType.FIGURE, section, page);
+                    figure.setAlternateDescription("Generated image " + (i + 1));
+                    figure.appendKid(writer.image(createImage(document, random)));
+                }
+                for (int i = 0; i < this.annotations; ++i) {
+                    page.getAnnotations().add(createLink(page, random, i));
+                }
+            } finally {
+                writer.close();
+            }
+        }
+        return document;
+    }
+
+    /**
+     * Without an ID the writer generates one from the current time, which would make the output differ between runs.
+     */
+    private static void setDocumentId(PDDocument document, Random random) {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        COSArray ids = new COSArray();
+        ids.add(new COSString(id));
+        ids.add(new COSString(id));
+        document.getDocument().getTrailer().setItem(COSName.ID, ids);
+    }
+
+    private static <T> T pick(List<T> values, Random random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String randomText(Random random) {
+        int length = 5 + random.nextInt(40);
+        StringBuilder res = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            res.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return res.toString();
+    }
+
+    private static PDImageXObject createImage(PDDocument document, Random random) throws IOException {
+        BufferedImage image = new BufferedImage(IMAGE_SIZE, IMAGE_SIZE, BufferedImage.TYPE_INT_RGB);
+        for (int x = 0; x < IMAGE_SIZE; ++x) {
+            for (int y = 0; y < IMAGE_SIZE; ++y) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        return LosslessFactory.createFromImage(document, image);
+    }
+
+    private static PDAnnotationLink createLink(PDPage page, Random random, int index) {
+        PDRectangle mediaBox = page.getMediaBox();
+        float x = MARGIN + random.nextFloat() * (mediaBox.getWidth() - 2 * MARGIN - ANNOTATION_SIZE);
+        float y = MARGIN + random.nextFloat() * (mediaBox.getHeight() - 2 * MARGIN - ANNOTATION_SIZE);
+        PDAnnotationLink link = new PDAnnotationLink();
+        link.setRectangle(new PDRectangle(x, y, ANNOTATION_SIZE, ANNOTATION_SIZE));
+        link.setContents("Generated link " + (index + 1));
+        PDActionURI action = new PDActionURI();
+        action.setURI("https://example.org/" + random.nextInt(1000));
+        link.setAction(action);
+        return link;
+    }
+
+    private static PDStructureElement createStructureElement(StructureType type, PDStructureNode parent, PDPage page) {
+        PDStructureElement structureElement = new PDStructureElement(type.getType(), parent);
+        parent.appendKid(structureElement);
+        structureElement.setPage(page);
+        return structureElement;
+    }
+
+    /**
+     * Writes marked content of a single page, lines wrap to the top of the page when they reach the bottom.
+     */
+    private static final class PageWriter {
+        private final PDPageContentStream content;
+        private final Random random;
+        private final List<PDFont> fonts;
+        private final float top;
+        private final int linesPerPage;
+        private int mcid = 0;
+        private int line = 0;
+
+        private PageWriter(PDDocument document, PDPage page, Random random, List<PDFont> fonts) throws IOException {
+            this.content = new PDPageContentStream(document, page, AppendMode.OVERWRITE, false);
+            this.random = random;
+            this.fonts = fonts;
+            this.top = page.getMediaBox().getHeight() - MARGIN;
+            this.linesPerPage = (int) ((page.getMediaBox().getHeight() - 2 * MARGIN) / LINE_HEIGHT);
+        }
+
+        private PDMarkedContent text(String text) throws IOException {
+            COSDictionary properties = nextProperties();
+            this.content.beginMarkedContent(COSName.P, PDPropertyList.create(properties));
+            this.content.beginText();
+            this.content.setFont(pick(this.fonts, this.random), FONT_SIZE);
+            this.content.newLineAtOffset(MARGIN, nextLineY());
+            this.content.showText(text);
+            this.content.endText();
+            this.content.endMarkedContent();
+            return new PDMarkedContent(COSName.P, properties);
+        }
+
+        private PDMarkedContent image(PDImageXObject image) throws IOException {
+            COSDictionary properties = nextProperties();
+            COSName tag = COSName.getPDFName(StructureType.FIGURE.getType());
+            this.content.beginMarkedContent(tag, PDPropertyList.create(properties));
+            float x = MARGIN + this.random.nextFloat() * 400;
+            this.content.drawImage(image, x, nextLineY(), IMAGE_SIZE / 2f, IMAGE_SIZE / 2f);
+            this.content.endMarkedContent();
+            return new PDMarkedContent(tag, properties);
+        }
+
+        private COSDictionary nextProperties() {
+            COSDictionary properties = new COSDictionary();
+            properties.setInt(COSName.MCID, this.mcid++);
+            return properties;
+        }
+
+        private float nextLineY() {
+            return this.top - (this.line++ % this.linesPerPage) * LINE_HEIGHT;
+        }
+
+        private void close() throws IOException {
+            this.content.close();
+        }
+    }
+}
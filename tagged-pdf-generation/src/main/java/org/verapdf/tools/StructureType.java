@@ -83,4 +83,27 @@ public enum StructureType {
     public boolean is2_0() {
         return is2_0;
     }
+
+    /**
+     * @return true if elements of this type group other elements rather than hold content
+     */
+    public boolean isGrouping() {
+        switch (this) {
+            case DOCUMENT:
+            case PART:
+            case ART:
+            case SECT:
+            case DIV:
+            case BLOCK_QUOTE:
+            case TOC:
+            case INDEX:
+            case NON_STRUCT:
+            case PRIVATE:
+            case DOCUMENT_FRAGMENT:
+            case ASIDE:
+                return true;
+            default:
+                return false;
+        }
+    }
 }
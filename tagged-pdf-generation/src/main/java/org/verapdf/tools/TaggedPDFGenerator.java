@@ -34,6 +34,10 @@ public class TaggedPDFGenerator {
     }
     
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].startsWith("--")) {
+            ScalingPDFGenerator.main(args);
+            return;
+        }
         TaggedPDFGenerator taggedPDFGenerator = new TaggedPDFGenerator();
 
         try {
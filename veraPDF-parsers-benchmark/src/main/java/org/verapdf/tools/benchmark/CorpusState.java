@@ -0,0 +1,60 @@
+package org.verapdf.tools.benchmark;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark state holding the content of every pdf file of a local corpus directory.
+ * Files are read into memory once per trial, so disk I/O does not take part in measurements.
+ * Directory is set with {@code -p corpus=<path>}.
+ */
+@State(Scope.Benchmark)
+public class CorpusState {
+
+	@Param({"corpus"})
+	public String corpus;
+
+	private final List<byte[]> documents = new ArrayList<>();
+
+	@Setup
+	public void loadCorpus() throws IOException {
+		Path corpusPath = Paths.get(this.corpus);
+		if (!Files.isDirectory(corpusPath)) {
+			throw new IllegalStateException("Corpus directory " + corpusPath.toAbsolutePath() + " does not exist");
+		}
+		List<Path> files;
+		try (Stream<Path> subPaths = Files.walk(corpusPath)) {
+			files = subPaths.filter(Files::isRegularFile)
+			                .filter(path -> path.getFileName().toString().toLowerCase().endsWith(".pdf"))
+			                .sorted()
+			                .collect(Collectors.toList());
+		}
+		if (files.isEmpty()) {
+			throw new IllegalStateException("Corpus directory " + corpusPath.toAbsolutePath() + " contains no pdf files");
+		}
+		for (Path file : files) {
+			this.documents.add(Files.readAllBytes(file));
+		}
+	}
+
+	public int size() {
+		return this.documents.size();
+	}
+
+	public InputStream open(int index) {
+		return new ByteArrayInputStream(this.documents.get(index));
+	}
+}
@@ -0,0 +1,78 @@
+package org.verapdf.tools.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.verapdf.core.EncryptedPdfException;
+import org.verapdf.core.ModelParsingException;
+import org.verapdf.features.FeatureExtractorConfig;
+import org.verapdf.features.FeatureFactory;
+import org.verapdf.features.FeatureObjectType;
+import org.verapdf.pdfa.PDFAParser;
+import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.tools.factory.ModelParserFactory;
+import org.verapdf.tools.performance.ModelParserType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extraction of a single {@link FeatureObjectType} from the already parsed corpus.
+ * Documents are parsed again before every iteration, parsing itself is not measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class FeaturesBenchmark {
+
+	/**
+	 * PDFBox parser is measured with {@code -p parserType=GREENFIELD,PDFBOX}
+	 * when pdfbox-validation-model is added to the classpath.
+	 */
+	@Param({"GREENFIELD"})
+	public ModelParserType parserType;
+
+	@Param({"ACTION", "ANNOTATION", "COLORSPACE", "DOCUMENT_SECURITY", "EMBEDDED_FILE", "EXT_G_STATE", "FONT",
+			"FORM_XOBJECT", "ICCPROFILE", "IMAGE_XOBJECT", "INFORMATION_DICTIONARY", "INTERACTIVE_FORM_FIELDS",
+			"LOW_LEVEL_INFO", "METADATA", "OUTLINES", "OUTPUTINTENT", "PAGE", "PATTERN", "POSTSCRIPT_XOBJECT",
+			"PROPERTIES", "SHADING", "SIGNATURE"})
+	public FeatureObjectType featureType;
+
+	private final List<PDFAParser> parsers = new ArrayList<>();
+	private FeatureExtractorConfig config;
+
+	@Setup(Level.Trial)
+	public void createConfig() {
+		this.config = FeatureFactory.configFromValues(EnumSet.of(this.featureType));
+	}
+
+	@Setup(Level.Iteration)
+	public void parseCorpus(CorpusState corpus) throws IOException, ModelParsingException, EncryptedPdfException {
+		for (int i = 0; i < corpus.size(); ++i) {
+			try (InputStream is = corpus.open(i)) {
+				this.parsers.add(ModelParserFactory.createModelParser(this.parserType, is, PDFAFlavour.NO_FLAVOUR));
+			}
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeParsers() throws IOException {
+		for (PDFAParser parser : this.parsers) {
+			parser.close();
+		}
+		this.parsers.clear();
+	}
+
+	@Benchmark
+	public void extract(Blackhole blackhole) {
+		for (PDFAParser parser : this.parsers) {
+			blackhole.consume(parser.getFeatures(this.config));
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package org.verapdf.tools.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.verapdf.core.EncryptedPdfException;
+import org.verapdf.core.ModelParsingException;
+import org.verapdf.pdfa.PDFAParser;
+import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.tools.factory.ModelParserFactory;
+import org.verapdf.tools.performance.ModelParserType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing of the whole corpus by a {@link ModelParserType}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParsingBenchmark {
+
+	/**
+	 * PDFBox parser is measured with {@code -p parserType=GREENFIELD,PDFBOX}
+	 * when pdfbox-validation-model is added to the classpath.
+	 */
+	@Param({"GREENFIELD"})
+	public ModelParserType parserType;
+
+	@Benchmark
+	public void parse(CorpusState corpus, Blackhole blackhole) throws IOException, ModelParsingException, EncryptedPdfException {
+		for (int i = 0; i < corpus.size(); ++i) {
+			try (InputStream is = corpus.open(i);
+			     PDFAParser parser = ModelParserFactory.createModelParser(this.parserType, is, PDFAFlavour.NO_FLAVOUR)) {
+				blackhole.consume(parser.getFlavour());
+			}
+		}
+	}
+}
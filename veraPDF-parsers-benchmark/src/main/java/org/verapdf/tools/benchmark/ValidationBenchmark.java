@@ -0,0 +1,74 @@
+package org.verapdf.tools.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.verapdf.core.EncryptedPdfException;
+import org.verapdf.core.ModelParsingException;
+import org.verapdf.core.ValidationException;
+import org.verapdf.pdfa.PDFAParser;
+import org.verapdf.pdfa.PDFAValidator;
+import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.pdfa.validation.validators.ValidatorFactory;
+import org.verapdf.tools.factory.ModelParserFactory;
+import org.verapdf.tools.performance.ModelParserType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures validation of the already parsed corpus for a set of flavours.
+ * Documents are parsed again before every iteration, parsing itself is not measured.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+	/**
+	 * PDFBox parser is measured with {@code -p parserType=GREENFIELD,PDFBOX}
+	 * when pdfbox-validation-model is added to the classpath.
+	 */
+	@Param({"GREENFIELD"})
+	public ModelParserType parserType;
+
+	@Param({"PDFA_1_B", "PDFA_2_B", "PDFA_4", "PDFUA_1", "WCAG_2_2_MACHINE"})
+	public PDFAFlavour flavour;
+
+	private final List<PDFAParser> parsers = new ArrayList<>();
+	private PDFAValidator validator;
+
+	@Setup(Level.Trial)
+	public void createValidator() {
+		this.validator = ValidatorFactory.createValidator(this.flavour, false, -1);
+	}
+
+	@Setup(Level.Iteration)
+	public void parseCorpus(CorpusState corpus) throws IOException, ModelParsingException, EncryptedPdfException {
+		for (int i = 0; i < corpus.size(); ++i) {
+			try (InputStream is = corpus.open(i)) {
+				this.parsers.add(ModelParserFactory.createModelParser(this.parserType, is, this.flavour));
+			}
+		}
+	}
+
+	@TearDown(Level.Iteration)
+	public void closeParsers() throws IOException {
+		for (PDFAParser parser : this.parsers) {
+			parser.close();
+		}
+		this.parsers.clear();
+	}
+
+	@Benchmark
+	public void validate(Blackhole blackhole) throws ValidationException {
+		for (PDFAParser parser : this.parsers) {
+			blackhole.consume(this.validator.validate(parser));
+		}
+	}
+}
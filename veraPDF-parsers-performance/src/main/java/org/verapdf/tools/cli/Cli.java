@@ -1,6 +1,7 @@
 package org.verapdf.tools.cli;
 
 import java.io.IOException;
+import java.io.PrintStream;
 
 import org.verapdf.ReleaseDetails;
 
@@ -19,6 +20,7 @@ public final class Cli {
 	private static final ReleaseDetails RELEASE_DETAILS = ReleaseDetails.getInstance();
 	private static final String FLAVOURS_HEADING = APP_NAME + " supported PDF/A profiles:";
 	private static final ProfileDirectory PROFILES = Profiles.getVeraProfileDirectory();
+	private static final int REGRESSION_EXIT_CODE = 2;
 
 	private Cli() {
 		// disable default constructor
@@ -51,11 +53,29 @@ public final class Cli {
 			jCommander.usage();
 			System.exit(0);
 		}
+		if (cliArgParser.isResume() && cliArgParser.getJournal() == null) {
+			System.err.println("Option " + CliArgParser.RESUME + " requires " + CliArgParser.JOURNAL);
+			jCommander.usage();
+			System.exit(1);
+		}
+		if (cliArgParser.maxFailures() > 0
+				&& (!cliArgParser.getExtraFlavours().isEmpty() || !cliArgParser.getExtraProfileFiles().isEmpty())) {
+			System.err.println("Option " + CliArgParser.MAX_FAILURES + " can not be used with " + CliArgParser.EXTRA_FLAVOURS
+					+ " or " + CliArgParser.EXTRA_PROFILES + ", the profiles are validated without failure limit");
+			jCommander.usage();
+			System.exit(1);
+		}
+		if (cliArgParser.isWorker()) {
+			runWorker(cliArgParser, args);
+			return;
+		}
 		messagesFromParser(cliArgParser);
 		if (isProcess(cliArgParser)) {
 			try {
-				CliProcessor processor = CliProcessor.createProcessorFromArgs(cliArgParser);
-				processor.processPaths(cliArgParser.getPdfPaths());
+				CliProcessor processor = CliProcessor.createProcessorFromArgs(cliArgParser, args);
+				if (!processor.processPaths(cliArgParser.getPdfPaths())) {
+					System.exit(REGRESSION_EXIT_CODE);
+				}
 			} catch (IOException e) {
 				// TODO Auto-generated catch block
 				e.printStackTrace();
@@ -63,6 +83,20 @@ public final class Cli {
 		}
 	}
 
+	/**
+	 * Standard output carries results to the coordinator, so everything else is printed to standard error.
+	 */
+	private static void runWorker(final CliArgParser parser, final String[] args) {
+		PrintStream resultsOut = System.out;
+		System.setOut(System.err);
+		try {
+			CliProcessor.createProcessorFromArgs(parser, args).processWorkerRequests(resultsOut);
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(1);
+		}
+	}
+
 	private static void messagesFromParser(final CliArgParser parser) {
 
 		if (parser.listProfiles()) {
@@ -4,11 +4,19 @@ import com.beust.jcommander.IParameterValidator;
 import com.beust.jcommander.IStringConverter;
 import com.beust.jcommander.Parameter;
 import com.beust.jcommander.ParameterException;
+import org.verapdf.features.FeatureObjectType;
 import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.tools.factory.ModelParserFactory;
+import org.verapdf.tools.performance.ModelParserType;
+import org.verapdf.tools.report.ReportFormat;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * @author Maksim Bezrukov
@@ -36,6 +44,30 @@ public class CliArgParser {
 	final static String FIX_METADATA = OPTION_SEP + "fixmetadata";
 	final static String VALID_OFF_FLAG = FLAG_SEP + "o";
 	final static String VALID_OFF = OPTION_SEP + "off";
+	final static String THREADS = OPTION_SEP + "threads";
+	final static String WARMUP = OPTION_SEP + "warmup";
+	final static String ITERATIONS = OPTION_SEP + "iterations";
+	final static String REPORT = OPTION_SEP + "report";
+	final static String OUTPUT = OPTION_SEP + "output";
+	final static String BASELINE = OPTION_SEP + "baseline";
+	final static String THRESHOLD = OPTION_SEP + "threshold";
+	final static String PROFILE_RULES = OPTION_SEP + "profileRules";
+	final static String PARSERS = OPTION_SEP + "parsers";
+	final static String FEATURE_TYPES = OPTION_SEP + "featureTypes";
+	final static String PROFILE_FEATURES = OPTION_SEP + "profileFeatures";
+	final static String SCALING = OPTION_SEP + "scaling";
+	final static String JFR = OPTION_SEP + "jfr";
+	final static String JFR_THRESHOLD = OPTION_SEP + "jfrThreshold";
+	final static String TIMEOUT = OPTION_SEP + "timeout";
+	final static String EXTRA_FLAVOURS = OPTION_SEP + "extraFlavours";
+	final static String EXTRA_PROFILES = OPTION_SEP + "extraProfiles";
+	final static String WORKERS = OPTION_SEP + "workers";
+	final static String WORKER_XMX = OPTION_SEP + "workerXmx";
+	final static String WORKER = OPTION_SEP + "worker";
+	final static String JOURNAL = OPTION_SEP + "journal";
+	final static String RESUME = OPTION_SEP + "resume";
+	final static String STRESS = OPTION_SEP + "stress";
+	final static String CONTENTION = OPTION_SEP + "contention";
 
 	@Parameter(names = { HELP_FLAG, HELP }, description = "Shows this message and exits.", help = true)
 	private boolean help = false;
@@ -72,6 +104,77 @@ public class CliArgParser {
 	@Parameter(names = { VALID_OFF_FLAG, VALID_OFF }, description = "Turns off PDF/A validation")
 	private boolean isValidationOff = false;
 
+	@Parameter(names = { THREADS }, description = "Number of files processed in parallel, each by its own worker. Peak heap usage of the phases is not measured when it is greater than 1.", validateWith = PositiveIntegerValidator.class)
+	private int threads = 1;
+
+	@Parameter(names = { WARMUP }, description = "Number of unmeasured validation runs of every file before measurement.", validateWith = NonNegativeIntegerValidator.class)
+	private int warmup = 0;
+
+	@Parameter(names = { ITERATIONS }, description = "Number of measured validation runs of every file, each on a freshly parsed document.", validateWith = PositiveIntegerValidator.class)
+	private int iterations = 1;
+
+	@Parameter(names = { REPORT }, description = "Writes one machine-readable record per processed file instead of the text report, 'json' or 'csv'.", converter = ReportFormatConverter.class)
+	private ReportFormat reportFormat;
+
+	@Parameter(names = { OUTPUT }, description = "Writes the report to the given file instead of the standard output.")
+	private File output;
+
+	@Parameter(names = { BASELINE }, description = "Compares results with a previous JSON report and exits with a non-zero code on regressions.", validateWith = BaselineFileValidator.class)
+	private File baseline;
+
+	@Parameter(names = { THRESHOLD }, description = "Allowed slowdown of a phase compared to the baseline, in percent.", validateWith = NonNegativeDoubleValidator.class)
+	private double threshold = 20;
+
+	@Parameter(names = { PROFILE_RULES }, description = "Measures evaluation time of every validation rule and prints rules ranked by cost. The --maxfailures limit is not applied.")
+	private boolean profileRules = false;
+
+	@Parameter(names = { PARSERS }, description = "Comma separated parsers to process every file with, e.g. 'greenfield,pdfbox'. With more than one parser timing ratios and result differences against the first one are reported.", converter = ParserTypeConverter.class)
+	private List<ModelParserType> parsers = new ArrayList<>(Collections.singletonList(ModelParserType.GREENFIELD));
+
+	@Parameter(names = { FEATURE_TYPES }, description = "Comma separated feature types to extract, e.g. 'font,iccprofile'. All types are extracted by default.", converter = FeatureObjectTypeConverter.class)
+	private List<FeatureObjectType> featureTypes = new ArrayList<>();
+
+	@Parameter(names = { PROFILE_FEATURES }, description = "After the normal extraction extracts every feature type separately once more and reports time spent on each one. Implies --extract.")
+	private boolean profileFeatures = false;
+
+	@Parameter(names = { SCALING }, description = "Prints aggregate throughput and how validation time scales with file size, page count and object count.")
+	private boolean scaling = false;
+
+	@Parameter(names = { JFR }, description = "Records processing of every file with Java Flight Recorder and keeps recordings of slow files in the given directory. Report records are marked as flight recorded, their timings are compared only with baseline records measured with it as well.")
+	private File jfrDirectory;
+
+	@Parameter(names = { JFR_THRESHOLD }, description = "Processing time of a file in milliseconds above which its Flight Recorder recording is kept.", validateWith = NonNegativeDoubleValidator.class)
+	private double jfrThreshold = 5000;
+
+	@Parameter(names = { TIMEOUT }, description = "Wall clock budget of a file in seconds, processing is abandoned when it is exceeded. 0 means no limit. An abandoned file keeps running in the background and skews timings of the files measured meanwhile, they are marked in the report. While 4 timed out files are running new files are not started. With --workers the worker JVM of a timed out file is killed and restarted instead, so nothing keeps running.", validateWith = NonNegativeIntegerValidator.class)
+	private int timeout = 0;
+
+	@Parameter(names = { EXTRA_FLAVOURS }, description = "Comma separated built-in flavours, e.g. '2b,ua1', validated in the same pass over the parsed document as the main flavour or profile. Parsing and per profile rule evaluation costs are reported separately. Every rule evaluation is timed, so the validation time is longer than without extra profiles. Can not be used with --maxfailures.", converter = FlavourConverter.class)
+	private List<PDFAFlavour> extraFlavours = new ArrayList<>();
+
+	@Parameter(names = { EXTRA_PROFILES }, description = "Comma separated paths to Validation Profiles validated in the same pass as the main flavour or profile. Same as --extraFlavours, validation is instrumented and can not be used with --maxfailures.")
+	private List<File> extraProfileFiles = new ArrayList<>();
+
+	@Parameter(names = { WORKERS }, description = "Number of separate worker JVMs to process files in. A worker that runs out of memory or crashes is restarted and its file is reported as failed. 0 processes files in this JVM.", validateWith = NonNegativeIntegerValidator.class)
+	private int workers = 0;
+
+	@Parameter(names = { WORKER_XMX }, description = "Maximum heap size of every worker JVM, e.g. '2g'. The JVM default is used if omitted.")
+	private String workerXmx;
+
+	@Parameter(names = { WORKER }, description = "Runs as a worker JVM reading file paths from the standard input.", hidden = true)
+	private boolean worker = false;
+
+	@Parameter(names = { JOURNAL }, description = "Appends path, content hash, outcome and report records of every processed file to the given journal.")
+	private File journal;
+
+	@Parameter(names = { RESUME }, description = "Skips files that the journal lists as processed by the same tool version. Requires --journal. Report records of skipped files are taken from the journal, so reports and baseline comparison cover the whole corpus. Text output and corpus statistics cover only the files processed by this run.")
+	private boolean resume = false;
+
+	@Parameter(names = { STRESS }, description = "Comma separated numbers of concurrent threads, e.g. '1,2,4,8'. Validates all files with every number of threads in this JVM and reports the throughput curve instead of per file results. Every file is validated --iterations times per run, --warmup runs with the largest number of threads precede the measurement. Exits with code 2 if a file can not be validated or its results differ between threads.", validateWith = PositiveIntegerListValidator.class)
+	private List<Integer> stressThreads = new ArrayList<>();
+
+	@Parameter(names = { CONTENTION }, description = "With --stress, records blocking on monitors and parking with Java Flight Recorder and reports where threads waited longest. Recordings are kept in the --jfr directory if it is given.")
+	private boolean contention = false;
 
 	@Parameter(description = "FILES")
 	private List<String> pdfPaths = new ArrayList<>();
@@ -157,6 +260,174 @@ public class CliArgParser {
 		return this.isValidationOff;
 	}
 
+	/**
+	 * @return number of files processed in parallel
+	 */
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/**
+	 * @return number of unmeasured validation runs of every file
+	 */
+	public int getWarmup() {
+		return this.warmup;
+	}
+
+	/**
+	 * @return number of measured validation runs of every file
+	 */
+	public int getIterations() {
+		return this.iterations;
+	}
+
+	/**
+	 * @return the machine-readable report format, or null for the text report
+	 */
+	public ReportFormat getReportFormat() {
+		return this.reportFormat;
+	}
+
+	/**
+	 * @return the report file, or null for the standard output
+	 */
+	public File getOutput() {
+		return this.output;
+	}
+
+	/**
+	 * @return the JSON report of a previous run, or null if no comparison requested
+	 */
+	public File getBaseline() {
+		return this.baseline;
+	}
+
+	/**
+	 * @return allowed slowdown of a phase compared to the baseline, in percent
+	 */
+	public double getThreshold() {
+		return this.threshold;
+	}
+
+	/**
+	 * @return true if per rule profiling of validation requested
+	 */
+	public boolean profileRules() {
+		return this.profileRules;
+	}
+
+	/**
+	 * @return feature types to extract
+	 */
+	public Set<FeatureObjectType> getFeatureTypes() {
+		return this.featureTypes.isEmpty() ? EnumSet.allOf(FeatureObjectType.class) : EnumSet.copyOf(this.featureTypes);
+	}
+
+	/**
+	 * @return true if time of every feature type extraction should be measured
+	 */
+	public boolean profileFeatures() {
+		return this.profileFeatures;
+	}
+
+	/**
+	 * @return directory for Flight Recorder recordings of slow files, or null if recording is off
+	 */
+	public File getJfrDirectory() {
+		return this.jfrDirectory;
+	}
+
+	/**
+	 * @return processing time of a file in milliseconds above which its recording is kept
+	 */
+	public double getJfrThreshold() {
+		return this.jfrThreshold;
+	}
+
+	/**
+	 * @return built-in flavours to validate together with the main flavour or profile
+	 */
+	public List<PDFAFlavour> getExtraFlavours() {
+		return Collections.unmodifiableList(this.extraFlavours);
+	}
+
+	/**
+	 * @return profile files to validate together with the main flavour or profile
+	 */
+	public List<File> getExtraProfileFiles() {
+		return Collections.unmodifiableList(this.extraProfileFiles);
+	}
+
+	/**
+	 * @return number of worker JVMs, 0 if files are processed in this JVM
+	 */
+	public int getWorkers() {
+		return this.workers;
+	}
+
+	/**
+	 * @return maximum heap size of worker JVMs in -Xmx format, or null for the JVM default
+	 */
+	public String getWorkerXmx() {
+		return this.workerXmx;
+	}
+
+	/**
+	 * @return true if this JVM is a worker started by another run
+	 */
+	public boolean isWorker() {
+		return this.worker;
+	}
+
+	/**
+	 * @return journal of processed files, or null if no journal is kept
+	 */
+	public File getJournal() {
+		return this.journal;
+	}
+
+	/**
+	 * @return true if files listed in the journal should be skipped
+	 */
+	public boolean isResume() {
+		return this.resume;
+	}
+
+	/**
+	 * @return numbers of concurrent threads to stress validation with, empty if files are processed normally
+	 */
+	public List<Integer> getStressThreads() {
+		return Collections.unmodifiableList(this.stressThreads);
+	}
+
+	/**
+	 * @return true if lock contention should be recorded during stress runs
+	 */
+	public boolean recordContention() {
+		return this.contention;
+	}
+
+	/**
+	 * @return wall clock budget of a file in seconds, 0 if processing time is not limited
+	 */
+	public int getTimeout() {
+		return this.timeout;
+	}
+
+	/**
+	 * @return true if the corpus throughput and scaling report should be printed
+	 */
+	public boolean showScaling() {
+		return this.scaling;
+	}
+
+	/**
+	 * @return parsers to process files with in the given order without duplicates, the first one is the reference for comparison
+	 */
+	public Set<ModelParserType> getParsers() {
+		return Collections.unmodifiableSet(new LinkedHashSet<>(this.parsers));
+	}
+
 	/**
 	 * JCommander parameter converter for {@link PDFAFlavour}, see
 	 * {@link IStringConverter} and {@link PDFAFlavour#byFlavourId(String)}.
@@ -180,6 +451,69 @@ public class CliArgParser {
 
 	}
 
+	/**
+	 * JCommander parameter converter for {@link ReportFormat}, see
+	 * {@link IStringConverter}.
+	 */
+	public static final class ReportFormatConverter implements
+			IStringConverter<ReportFormat> {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public ReportFormat convert(final String value) {
+			for (ReportFormat format : ReportFormat.values()) {
+				if (format.name().equalsIgnoreCase(value))
+					return format;
+			}
+			throw new ParameterException("Illegal --report argument:" + value);
+		}
+
+	}
+
+	/**
+	 * Converts feature type names to {@link FeatureObjectType}.
+	 */
+	public static final class FeatureObjectTypeConverter implements
+			IStringConverter<FeatureObjectType> {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public FeatureObjectType convert(final String value) {
+			for (FeatureObjectType type : FeatureObjectType.values()) {
+				if (type.name().equalsIgnoreCase(value) || type.getNodeName().equalsIgnoreCase(value)) {
+					return type;
+				}
+			}
+			throw new ParameterException("Illegal --featureTypes argument:" + value);
+		}
+
+	}
+
+	/**
+	 * Converts parser names to {@link ModelParserType}, rejecting parsers that are not on the classpath.
+	 */
+	public static final class ParserTypeConverter implements
+			IStringConverter<ModelParserType> {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public ModelParserType convert(final String value) {
+			for (ModelParserType type : ModelParserType.values()) {
+				if (type.name().equalsIgnoreCase(value)) {
+					if (!ModelParserFactory.getAvailableTypes().contains(type)) {
+						throw new ParameterException("Parser " + value + " is not available on the classpath");
+					}
+					return type;
+				}
+			}
+			throw new ParameterException("Illegal --parsers argument:" + value);
+		}
+
+	}
+
 	/**
 	 * JCommander parameter validator for {@link File}, see
 	 * {@link IParameterValidator}. Enforces an existing, readable file.
@@ -203,4 +537,127 @@ public class CliArgParser {
 		}
 
 	}
+
+	/**
+	 * JCommander parameter validator for the baseline report, see
+	 * {@link IParameterValidator}. Enforces an existing, readable file.
+	 */
+	public static final class BaselineFileValidator implements
+			IParameterValidator {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public void validate(final String name, final String value)
+				throws ParameterException {
+			File baselineFile = new File(value);
+			if (!baselineFile.isFile() || !baselineFile.canRead()) {
+				throw new ParameterException("Parameter " + name
+						+ " must be the path to an existing, readable JSON report of a previous run, value=" + value);
+			}
+		}
+
+	}
+
+	/**
+	 * JCommander parameter validator for positive integer values, see
+	 * {@link IParameterValidator}.
+	 */
+	public static final class PositiveIntegerValidator implements
+			IParameterValidator {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public void validate(final String name, final String value)
+				throws ParameterException {
+			try {
+				if (Integer.parseInt(value) > 0) {
+					return;
+				}
+			} catch (NumberFormatException e) {
+				// reported below
+			}
+			throw new ParameterException("Parameter " + name
+					+ " must be a positive integer, value=" + value);
+		}
+
+	}
+
+	/**
+	 * JCommander parameter validator for comma separated lists of positive integer values, see
+	 * {@link IParameterValidator}.
+	 */
+	public static final class PositiveIntegerListValidator implements
+			IParameterValidator {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public void validate(final String name, final String value)
+				throws ParameterException {
+			for (String item : value.split(",")) {
+				try {
+					if (Integer.parseInt(item.trim()) > 0) {
+						continue;
+					}
+				} catch (NumberFormatException e) {
+					// reported below
+				}
+				throw new ParameterException("Parameter " + name
+						+ " must be a comma separated list of positive integers, value=" + value);
+			}
+		}
+
+	}
+
+	/**
+	 * JCommander parameter validator for non-negative integer values, see
+	 * {@link IParameterValidator}.
+	 */
+	public static final class NonNegativeIntegerValidator implements
+			IParameterValidator {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public void validate(final String name, final String value)
+				throws ParameterException {
+			try {
+				if (Integer.parseInt(value) >= 0) {
+					return;
+				}
+			} catch (NumberFormatException e) {
+				// reported below
+			}
+			throw new ParameterException("Parameter " + name
+					+ " must be a non-negative integer, value=" + value);
+		}
+
+	}
+
+	/**
+	 * JCommander parameter validator for non-negative decimal values, see
+	 * {@link IParameterValidator}.
+	 */
+	public static final class NonNegativeDoubleValidator implements
+			IParameterValidator {
+		/**
+		 * { @inheritDoc }
+		 */
+		@Override
+		public void validate(final String name, final String value)
+				throws ParameterException {
+			try {
+				if (Double.parseDouble(value) >= 0) {
+					return;
+				}
+			} catch (NumberFormatException e) {
+				// reported below
+			}
+			throw new ParameterException("Parameter " + name
+					+ " must be a non-negative number, value=" + value);
+		}
+
+	}
 }
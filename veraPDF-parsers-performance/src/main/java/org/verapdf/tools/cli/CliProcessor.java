@@ -1,18 +1,55 @@
 package org.verapdf.tools.cli;
 
+import org.verapdf.ReleaseDetails;
 import org.verapdf.core.EncryptedPdfException;
 import org.verapdf.core.ModelParsingException;
 import org.verapdf.core.ValidationException;
+import org.verapdf.features.FeatureObjectType;
 import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.pdfa.results.MetadataFixerResult;
+import org.verapdf.pdfa.results.ValidationResult;
+import org.verapdf.pdfa.validation.profiles.RuleId;
 import org.verapdf.pdfa.validation.profiles.Profiles;
 import org.verapdf.pdfa.validation.profiles.ValidationProfile;
+import org.verapdf.tools.performance.ConcurrencyStressHarness;
 import org.verapdf.tools.performance.ModelParserType;
 import org.verapdf.tools.performance.ParsersPerformanceChecker;
+import org.verapdf.tools.performance.Phase;
+import org.verapdf.tools.performance.PhaseMemory;
+import org.verapdf.tools.performance.PhaseMemoryUsage;
+import org.verapdf.tools.performance.PhaseTimings;
+import org.verapdf.tools.performance.ProfileValidation;
+import org.verapdf.tools.performance.RuleProfile;
+import org.verapdf.tools.report.Baseline;
+import org.verapdf.tools.report.FileRecord;
+import org.verapdf.tools.report.Outcome;
+import org.verapdf.tools.report.ReportWriter;
+import org.verapdf.tools.utils.Digests;
+import org.verapdf.tools.utils.ScalingFit;
+import org.verapdf.tools.utils.TestAssertionMultiset;
+import org.verapdf.tools.utils.TimingStatistics;
 
 import javax.xml.bind.JAXBException;
 import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.Formatter;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author Maksim Bezrukov
@@ -24,44 +61,276 @@ final class CliProcessor {
 	private static final long MS_IN_MIN = SEC_IN_MIN * MS_IN_SEC;
 	private static final int MIN_IN_HOUR = 60;
 	private static final long MS_IN_HOUR = MS_IN_MIN * MIN_IN_HOUR;
+	private static final double NANOS_IN_MS = 1_000_000.0;
+	private static final double BYTES_IN_MB = 1024.0 * 1024.0;
+	private static final double NANOS_IN_SEC = 1_000_000_000.0;
+	private static final int SAMPLE_SIZE = 0;
+	private static final int SAMPLE_PAGES = 1;
+	private static final int SAMPLE_OBJECTS = 2;
+	private static final int SAMPLE_NANOS = 3;
+	private static final int PENDING_FILES_PER_THREAD = 4;
+	private static final int STRESS_BAR_WIDTH = 40;
+	/**
+	 * Number of timed out files that may keep running in the background before new files are refused.
+	 */
+	private static final int MAX_ABANDONED_WORKERS = 4;
 
 	private final boolean recurse;
 	private String baseDirectory = "";
 	private final CliArgParser args;
+	private final ExecutorService executor;
+	private final ExecutorService watchdogExecutor;
+	/**
+	 * Number of timed out files whose workers are still running.
+	 */
+	private final AtomicInteger abandonedWorkers = new AtomicInteger();
+	private final AtomicInteger contaminatedFiles = new AtomicInteger();
+	private final WorkerPool workerPool;
+	private final Deque<Future<FileReport>> pendingReports = new ArrayDeque<>();
+	private final int maxPendingReports;
+	private final Map<ModelParserType, List<long[]>> corpusValidationSamples = new EnumMap<>(ModelParserType.class);
+	private final ReportWriter reportWriter;
+	private final PrintStream summaryOut;
+	private final Baseline baseline;
+	private final RuleProfile corpusRuleProfile = new RuleProfile();
+	private final Map<FeatureObjectType, Long> corpusFeatureTimings = new EnumMap<>(FeatureObjectType.class);
+	private final List<long[]> corpusScalingSamples = Collections.synchronizedList(new ArrayList<>());
+	private final SlowFileRecorder slowFileRecorder;
+	private final ValidationProfile profile;
+	private final List<ValidationProfile> extraProfiles;
+	private final List<String> failedFiles = new ArrayList<>();
+	private final Journal journal;
+	private int skippedFiles = 0;
+	private int comparedFiles = 0;
+	private int regressedFiles = 0;
+	private int unmatchedFiles = 0;
 
 	private CliProcessor() throws IOException {
-		this(new CliArgParser());
+		this(new CliArgParser(), new String[0]);
 	}
 
-	private CliProcessor(final CliArgParser args) throws IOException {
+	/**
+	 * @param commandLine arguments the run has been started with, they are passed to worker JVMs
+	 */
+	private CliProcessor(final CliArgParser args, final String[] commandLine) throws IOException {
 		this.recurse = args.isRecurse();
 		this.args = args;
+		this.workerPool = !args.isWorker() && args.getWorkers() > 0
+				? new WorkerPool(createWorkerCommand(args, commandLine), args.getWorkers(), args.getTimeout()) : null;
+		int threads = args.isWorker() ? 1 : this.workerPool != null ? args.getWorkers() : args.getThreads();
+		this.executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		if (this.executor != null && this.workerPool == null) {
+			ParsersPerformanceChecker.disablePeakHeapMeasurement();
+		}
+		this.maxPendingReports = threads * PENDING_FILES_PER_THREAD;
+		// worker JVMs do not time out files themselves, the coordinator kills them on the deadline
+		this.watchdogExecutor = args.getTimeout() > 0 && this.workerPool == null && !args.isWorker() ? Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "file-worker");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+		if (args.getReportFormat() == null || args.isWorker()) {
+			this.reportWriter = null;
+			this.summaryOut = System.out;
+		} else if (args.getOutput() == null) {
+			this.reportWriter = args.getReportFormat().createWriter(new FilterOutputStream(System.out) {
+				@Override
+				public void close() throws IOException {
+					flush();
+				}
+			});
+			this.summaryOut = System.err;
+		} else {
+			this.reportWriter = args.getReportFormat().createWriter(new FileOutputStream(args.getOutput()));
+			this.summaryOut = System.out;
+		}
+		this.baseline = args.getBaseline() == null || args.isWorker() ? null : Baseline.load(args.getBaseline());
+		this.profile = loadProfile(args);
+		this.extraProfiles = loadExtraProfiles(args);
+		this.slowFileRecorder = this.workerPool == null ? createSlowFileRecorder(args) : null;
+		this.journal = args.getJournal() == null || args.isWorker() ? null
+				: new Journal(args.getJournal(), getToolVersion(), args.isResume());
+		for (ModelParserType type : args.getParsers()) {
+			this.corpusValidationSamples.put(type, Collections.synchronizedList(new ArrayList<>()));
+		}
 	}
 
-	void processPaths(final List<String> pdfPaths) {
-		for (String pdfPath : pdfPaths) {
-			File file = new File(pdfPath);
-			if (file.isDirectory()) {
-				baseDirectory = file.getAbsolutePath();
-				processDir(file);
+	/**
+	 * @return false if regressions against the baseline have been found or the stress run has failed
+	 */
+	boolean processPaths(final List<String> pdfPaths) {
+		try {
+			if (!args.getStressThreads().isEmpty()) {
+				return runStress(pdfPaths);
+			}
+			for (String pdfPath : pdfPaths) {
+				File file = new File(pdfPath);
+				if (file.isDirectory()) {
+					baseDirectory = file.getAbsolutePath();
+					processDir(file);
+				} else {
+					submitFile(file);
+				}
+			}
+			while (!this.pendingReports.isEmpty()) {
+				printNextReport();
+			}
+			if (this.workerPool != null) {
+				if (isRepeatedValidation() || args.profileRules() || args.showScaling() || args.profileFeatures()) {
+					this.summaryOut.println();
+					this.summaryOut.println("Corpus statistics are not collected from worker JVMs");
+				}
 			} else {
-				processFile(file);
+				showCorpusSummaries();
+			}
+			if (!this.failedFiles.isEmpty()) {
+				showFailedFiles();
+			}
+			if (this.contaminatedFiles.get() > 0) {
+				this.summaryOut.println();
+				this.summaryOut.println(this.contaminatedFiles.get() + " files were measured while timed out files were still running,"
+						+ " their timings are not reliable and are not compared with the baseline");
+			}
+			if (this.skippedFiles > 0) {
+				this.summaryOut.println();
+				this.summaryOut.println("Resumed from journal: " + this.skippedFiles
+						+ " files skipped as already processed successfully, their records are taken from the journal");
+			}
+			if (this.baseline != null) {
+				this.summaryOut.println();
+				this.summaryOut.println("Baseline comparison: " + this.comparedFiles + " files compared, "
+						+ this.regressedFiles + " regressed, " + this.unmatchedFiles + " not found in baseline");
+			}
+			return this.regressedFiles == 0;
+		} finally {
+			if (this.executor != null) {
+				this.executor.shutdownNow();
+			}
+			if (this.watchdogExecutor != null) {
+				this.watchdogExecutor.shutdownNow();
+			}
+			if (this.workerPool != null) {
+				this.workerPool.close();
+			}
+			closeReportWriter();
+			closeJournal();
+		}
+	}
+
+	private void showCorpusSummaries() {
+		if (isRepeatedValidation()) {
+			showCorpusStatistics();
+		}
+		if (args.profileRules()) {
+			showRuleProfile();
+		}
+		if (args.showScaling()) {
+			showScaling();
+		}
+		if (args.profileFeatures()) {
+			StringBuilder report = new StringBuilder(System.lineSeparator());
+			synchronized (this.corpusFeatureTimings) {
+				showFeatureTypeTimings(report, "Corpus features extraction by type", this.corpusFeatureTimings);
+			}
+			this.summaryOut.print(report);
+		}
+	}
+
+	/**
+	 * Runs as a worker JVM: processes files whose paths are read from the standard input and
+	 * writes a {@link WorkerResult} for each of them. Worker JVMs are started with
+	 * {@code -XX:+ExitOnOutOfMemoryError}, so they exit with {@link WorkerPool#OUT_OF_MEMORY_EXIT_CODE}
+	 * on running out of memory in any thread.
+	 *
+	 * @param resultsOut the original standard output, everything else printed by the
+	 *                   worker must go to the standard error
+	 */
+	void processWorkerRequests(final OutputStream resultsOut) throws IOException {
+		ObjectOutputStream results = new ObjectOutputStream(new BufferedOutputStream(resultsOut));
+		results.flush();
+		BufferedReader requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+		try {
+			for (String request = requests.readLine(); request != null; request = requests.readLine()) {
+				int separator = request.indexOf(WorkerPool.REQUEST_SEPARATOR);
+				String hash = separator > 0 ? request.substring(0, separator) : null;
+				WorkerResult result;
+				try {
+					result = new WorkerResult(processFile(new File(request.substring(separator + 1)), hash));
+				} catch (OutOfMemoryError e) {
+					// fallback for a JVM without ExitOnOutOfMemoryError, halt does not allocate and skips shutdown hooks
+					Runtime.getRuntime().halt(WorkerPool.OUT_OF_MEMORY_EXIT_CODE);
+					return;
+				}
+				results.writeObject(result);
+				results.reset();
+				results.flush();
+			}
+		} finally {
+			if (this.watchdogExecutor != null) {
+				this.watchdogExecutor.shutdownNow();
+			}
+		}
+	}
+
+	private static List<String> createWorkerCommand(final CliArgParser args, final String[] commandLine) {
+		List<String> command = new ArrayList<>();
+		command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getPath());
+		if (args.getWorkerXmx() != null) {
+			command.add("-Xmx" + args.getWorkerXmx());
+		}
+		command.add("-XX:+ExitOnOutOfMemoryError");
+		command.add("-cp");
+		command.add(System.getProperty("java.class.path"));
+		command.add(Cli.class.getName());
+		command.addAll(Arrays.asList(commandLine));
+		command.add(CliArgParser.WORKER);
+		return command;
+	}
+
+	private void closeJournal() {
+		if (this.journal != null) {
+			try {
+				this.journal.close();
+			} catch (IOException e) {
+				System.err.println("Exception raised while closing journal");
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * @return versions of all veraPDF components on the classpath, files processed by other versions are measured again
+	 */
+	private static String getToolVersion() {
+		List<String> versions = new ArrayList<>();
+		for (ReleaseDetails details : ReleaseDetails.getDetails()) {
+			versions.add(details.getId() + " " + details.getVersion());
+		}
+		Collections.sort(versions);
+		return String.join(", ", versions);
+	}
+
+	private void closeReportWriter() {
+		if (this.reportWriter != null) {
+			try {
+				this.reportWriter.close();
+			} catch (IOException e) {
+				System.err.println("Exception raised while closing report");
+				e.printStackTrace();
 			}
 		}
 	}
 
-	static CliProcessor createProcessorFromArgs(final CliArgParser args)
+	static CliProcessor createProcessorFromArgs(final CliArgParser args, final String[] commandLine)
 			throws IOException {
-		return new CliProcessor(args);
+		return new CliProcessor(args, commandLine);
 	}
 
 	private void processDir(final File dir) {
 		for (File file : dir.listFiles()) {
 			if (file.isFile()) {
-				int extIndex = file.getName().lastIndexOf(".");
-				String ext = file.getName().substring(extIndex + 1);
-				if ("pdf".equalsIgnoreCase(ext)) {
-					processFile(file);
+				if (isPdfFile(file)) {
+					submitFile(file);
 				}
 			} else if (file.isDirectory()) {
 				if (this.recurse) {
@@ -71,15 +340,450 @@ final class CliProcessor {
 		}
 	}
 
-	private void processFile(final File pdfFile) {
-		if (checkFileCanBeProcessed(pdfFile)) {
-			try (InputStream toProcess = new FileInputStream(pdfFile)) {
-				processStream(toProcess, pdfFile.getAbsolutePath());
-			} catch (IOException | ModelParsingException | EncryptedPdfException e) {
-				System.err.println("Exception raised while processing " + pdfFile.getAbsolutePath());
+	private void collectPdfFiles(final File dir, List<File> files) {
+		for (File file : dir.listFiles()) {
+			if (file.isFile()) {
+				if (isPdfFile(file)) {
+					files.add(file);
+				}
+			} else if (file.isDirectory()) {
+				if (this.recurse) {
+					collectPdfFiles(file, files);
+				}
+			}
+		}
+	}
+
+	private static boolean isPdfFile(final File file) {
+		int extIndex = file.getName().lastIndexOf(".");
+		String ext = file.getName().substring(extIndex + 1);
+		return "pdf".equalsIgnoreCase(ext);
+	}
+
+	/**
+	 * Validates all files with every requested number of concurrent threads and shows how throughput scales.
+	 *
+	 * @return false if a file could not be validated or its results differ between threads
+	 */
+	private boolean runStress(final List<String> pdfPaths) {
+		List<File> files = new ArrayList<>();
+		for (String pdfPath : pdfPaths) {
+			File file = new File(pdfPath);
+			if (file.isDirectory()) {
+				collectPdfFiles(file, files);
+			} else if (checkFileCanBeProcessed(file)) {
+				files.add(file);
+			}
+		}
+		if (files.isEmpty()) {
+			System.err.println("No files to run the stress test on");
+			return true;
+		}
+		ConcurrencyStressHarness harness = new ConcurrencyStressHarness(files, this.profile, args.getFlavour(),
+				args.getParsers(), args.getIterations());
+		ContentionRecorder contentionRecorder = args.recordContention() ? createContentionRecorder(args) : null;
+		List<ConcurrencyStressHarness.Result> results = new ArrayList<>();
+		StringBuilder contention = new StringBuilder();
+		try {
+			int maxThreads = Collections.max(args.getStressThreads()).intValue();
+			for (int i = 0; i < args.getWarmup(); ++i) {
+				harness.run(maxThreads);
+			}
+			for (Integer threads : args.getStressThreads()) {
+				ContentionRecorder.ContentionRecording recording = contentionRecorder == null ? null : contentionRecorder.start();
+				results.add(harness.run(threads.intValue()));
+				if (recording != null) {
+					showContention(contention, contentionRecorder, recording, threads.intValue());
+				}
+			}
+		} catch (ConcurrencyStressHarness.StressException e) {
+			System.err.println("Concurrency stress has failed, its results are not valid");
+			e.printStackTrace();
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running stress test", e);
+		}
+		showStressResults(harness, results);
+		this.summaryOut.print(contention);
+		return true;
+	}
+
+	private static void showContention(StringBuilder report, ContentionRecorder contentionRecorder,
+									   ContentionRecorder.ContentionRecording recording, int threads) {
+		report.append(System.lineSeparator());
+		report.append("Longest waits with ").append(threads).append(" threads:").append(System.lineSeparator());
+		try {
+			List<String> sites = contentionRecorder.finish(recording, "contention-" + threads + "-threads");
+			if (sites.isEmpty()) {
+				report.append("	no waits longer than 1 ms").append(System.lineSeparator());
+			}
+			for (String site : sites) {
+				report.append('	').append(site).append(System.lineSeparator());
+			}
+		} catch (IOException e) {
+			System.err.println("Exception raised while reading contention recording");
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Shows throughput of every run with speedup and efficiency relative to the run with the fewest threads.
+	 */
+	private void showStressResults(ConcurrencyStressHarness harness, List<ConcurrencyStressHarness.Result> results) {
+		ConcurrencyStressHarness.Result base = results.get(0);
+		double maxThroughput = 0;
+		for (ConcurrencyStressHarness.Result result : results) {
+			if (result.getThreads() < base.getThreads()) {
+				base = result;
+			}
+			maxThroughput = Math.max(maxThroughput, result.getThroughput());
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(System.lineSeparator());
+		report.append("Concurrency stress: ").append(harness.getFileCount()).append(" files, ").append(harness.getPasses())
+		      .append(" passes per run").append(System.lineSeparator());
+		report.append(String.format("	%7s %10s %8s %10s", "Threads", "Files/s", "Speedup", "Efficiency"))
+		      .append(System.lineSeparator());
+		for (ConcurrencyStressHarness.Result result : results) {
+			double speedup = base.getThroughput() == 0 ? 0 : result.getThroughput() / base.getThroughput();
+			double efficiency = speedup * base.getThreads() / result.getThreads();
+			int bar = maxThroughput == 0 ? 0 : (int) Math.round(STRESS_BAR_WIDTH * result.getThroughput() / maxThroughput);
+			report.append(String.format("	%7d %10.3f %7.2fx %9.1f%%  ", Integer.valueOf(result.getThreads()),
+					Double.valueOf(result.getThroughput()), Double.valueOf(speedup), Double.valueOf(efficiency * 100)));
+			for (int i = 0; i < bar; ++i) {
+				report.append('#');
+			}
+			report.append(System.lineSeparator());
+		}
+		this.summaryOut.print(report);
+	}
+
+	private static ContentionRecorder createContentionRecorder(final CliArgParser args) {
+		try {
+			return new ContentionRecorder(args.getJfrDirectory());
+		} catch (NoClassDefFoundError e) {
+			System.err.println("Java Flight Recorder is not supported by this JVM, contention is not recorded");
+		} catch (IOException e) {
+			System.err.println("Can not create directory for contention recordings, contention is not recorded");
+			e.printStackTrace();
+		}
+		return null;
+	}
+
+	/**
+	 * Processes the file on the calling thread, or hands it to the worker pool when
+	 * more than one thread is requested. Reports of pooled files are printed in
+	 * submission order, at most {@link #maxPendingReports} files are kept in flight.
+	 */
+	private void submitFile(final File pdfFile) {
+		if (this.executor == null) {
+			writeReport(processSubmittedFile(pdfFile));
+			return;
+		}
+		this.pendingReports.add(this.executor.submit(() -> processSubmittedFile(pdfFile)));
+		if (this.pendingReports.size() >= this.maxPendingReports) {
+			printNextReport();
+		}
+	}
+
+	/**
+	 * @return report with the records of a file processed by the interrupted run, so the report of the
+	 * resumed run is complete. Text reports and corpus statistics of such files are not restored.
+	 */
+	private static FileReport createResumedReport(List<FileRecord> measuredRecords) {
+		FileReport report = new FileReport();
+		for (FileRecord record : measuredRecords) {
+			report.addRecord(record);
+		}
+		report.setResumed(true);
+		return report;
+	}
+
+	private void printNextReport() {
+		Future<FileReport> report = this.pendingReports.poll();
+		try {
+			writeReport(report.get());
+		} catch (ExecutionException e) {
+			System.err.println("Exception raised in worker thread");
+			e.getCause().printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for file processing", e);
+		}
+	}
+
+	/**
+	 * Reads the content hash of the file once, it is shared by the records, the journal and the worker,
+	 * and takes the records from the journal if the file has been processed by the interrupted run.
+	 */
+	private FileReport processSubmittedFile(final File pdfFile) {
+		if (!checkFileCanBeProcessed(pdfFile)) {
+			return new FileReport();
+		}
+		String hash = null;
+		if (isRecordsRequired()) {
+			try {
+				hash = Digests.ofFile(pdfFile);
+			} catch (IOException e) {
+				System.err.println("Exception raised while reading " + pdfFile.getAbsolutePath());
 				e.printStackTrace();
+				FileReport report = new FileReport();
+				report.setOutcome(Outcome.ERROR);
+				return report;
 			}
 		}
+		if (this.journal != null && args.isResume()) {
+			List<FileRecord> measuredRecords = this.journal.getMeasuredRecords(hash);
+			if (measuredRecords != null) {
+				return createResumedReport(measuredRecords);
+			}
+		}
+		FileReport report = processFile(pdfFile, hash);
+		if (this.journal != null && report.getOutcome() != Outcome.NOT_STARTED) {
+			report.setJournalEntry(pdfFile.getAbsolutePath(), hash);
+		}
+		return report;
+	}
+
+	private void writeReport(FileReport report) {
+		if (report.isResumed()) {
+			++this.skippedFiles;
+		}
+		for (Runnable update : report.getCorpusUpdates()) {
+			update.run();
+		}
+		if (report.getFailure() != null) {
+			this.failedFiles.add(report.getFailure());
+		}
+		if (this.baseline != null) {
+			compareWithBaseline(report);
+		}
+		if (this.reportWriter == null) {
+			System.out.print(report.getText());
+		} else {
+			try {
+				for (FileRecord record : report.getRecords()) {
+					this.reportWriter.write(record);
+				}
+			} catch (IOException e) {
+				System.err.println("Exception raised while writing report");
+				e.printStackTrace();
+			}
+		}
+		if (report.getHash() != null) {
+			try {
+				this.journal.append(report.getPath(), report.getHash(), report.getOutcome(), report.getRecords());
+			} catch (IOException e) {
+				System.err.println("Exception raised while writing journal");
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private void compareWithBaseline(FileReport report) {
+		for (FileRecord record : report.getRecords()) {
+			if (!this.baseline.contains(record)) {
+				++this.unmatchedFiles;
+				continue;
+			}
+			++this.comparedFiles;
+			List<String> regressions = this.baseline.compare(record, args.getThreshold());
+			if (!regressions.isEmpty()) {
+				++this.regressedFiles;
+				System.err.println("Regression in " + record.getPath() + " (" + record.getParserType() + "):");
+				for (String regression : regressions) {
+					System.err.println("	" + regression);
+				}
+			}
+		}
+	}
+
+	private boolean isRecordsRequired() {
+		return args.getReportFormat() != null || args.getBaseline() != null || args.getJournal() != null;
+	}
+
+	/**
+	 * @param hash content hash of the file, or null if no records are required
+	 */
+	private FileReport processFile(final File pdfFile, String hash) {
+		FileReport report = new FileReport();
+		if (this.workerPool != null) {
+			return processFileInWorker(pdfFile, hash);
+		}
+		SlowFileRecorder.FileRecording recording = this.slowFileRecorder == null ? null : this.slowFileRecorder.start(pdfFile);
+		FileProgress progress = new FileProgress();
+		long startTime = System.nanoTime();
+		try {
+			if (this.watchdogExecutor == null) {
+				processPdf(pdfFile, hash, report, progress);
+			} else {
+				report = processPdfWithTimeout(pdfFile, hash, progress);
+			}
+		} catch (IOException | ModelParsingException | EncryptedPdfException | ValidationException e) {
+			System.err.println("Exception raised while processing " + pdfFile.getAbsolutePath());
+			e.printStackTrace();
+			report = createFailureReport(pdfFile, hash, Outcome.ERROR, progress.getPhase(),
+					e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+		} finally {
+			if (recording != null) {
+				finishRecording(recording, pdfFile, System.nanoTime() - startTime, report);
+			}
+		}
+		return report;
+	}
+
+	private FileReport processFileInWorker(final File pdfFile, String hash) {
+		try {
+			return this.workerPool.process(pdfFile, hash).toFileReport();
+		} catch (WorkerPool.WorkerTimeoutException e) {
+			return createFailureReport(pdfFile, hash, Outcome.TIMEOUT, null,
+					"after " + args.getTimeout() + " s, the worker has been killed");
+		} catch (WorkerPool.WorkerFailedException e) {
+			Outcome outcome = e.getExitCode() == WorkerPool.OUT_OF_MEMORY_EXIT_CODE ? Outcome.OUT_OF_MEMORY : Outcome.CRASH;
+			return createFailureReport(pdfFile, hash, outcome, null, "worker exit code " + e.getExitCode());
+		} catch (IOException e) {
+			System.err.println("Exception raised while restarting worker for " + pdfFile.getAbsolutePath());
+			e.printStackTrace();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for worker", e);
+		}
+		FileReport report = new FileReport();
+		report.setOutcome(Outcome.ERROR);
+		return report;
+	}
+
+	/**
+	 * Processes the file on a separate worker and abandons it when the timeout is exceeded.
+	 * The worker is interrupted, but parsing and validation do not check for interruption,
+	 * so it may keep running in the background until it finishes on its own.
+	 */
+	private FileReport processPdfWithTimeout(final File pdfFile, String hash, FileProgress progress)
+			throws IOException, ModelParsingException, EncryptedPdfException, ValidationException {
+		int abandonedBefore = this.abandonedWorkers.get();
+		if (abandonedBefore >= MAX_ABANDONED_WORKERS) {
+			return createFailureReport(pdfFile, hash, Outcome.NOT_STARTED, null, "because " + abandonedBefore
+					+ " timed out files are still running, use " + CliArgParser.WORKERS + " to stop them");
+		}
+		FileReport report = new FileReport();
+		long startTime = System.nanoTime();
+		Future<FileReport> task = this.watchdogExecutor.submit(() -> {
+			try {
+				processPdf(pdfFile, hash, report, progress);
+				return report;
+			} finally {
+				if (progress.finish()) {
+					this.abandonedWorkers.decrementAndGet();
+				}
+			}
+		});
+		try {
+			FileReport result = task.get(args.getTimeout(), TimeUnit.SECONDS);
+			markContaminated(result, Math.max(abandonedBefore, this.abandonedWorkers.get()));
+			return result;
+		} catch (TimeoutException e) {
+			// parsing and validation do not react to interruption, the worker keeps running until it finishes
+			task.cancel(true);
+			if (progress.abandon()) {
+				this.abandonedWorkers.incrementAndGet();
+			}
+			return createFailureReport(pdfFile, hash, Outcome.TIMEOUT, progress.getPhase(),
+					String.format("after %.3f s", Double.valueOf((System.nanoTime() - startTime) / NANOS_IN_SEC)));
+		} catch (InterruptedException e) {
+			task.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for file processing", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof ModelParsingException) {
+				throw (ModelParsingException) cause;
+			} else if (cause instanceof EncryptedPdfException) {
+				throw (EncryptedPdfException) cause;
+			} else if (cause instanceof ValidationException) {
+				throw (ValidationException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Marks a file measured while timed out files were still running in the background, its timings are skewed by them.
+	 */
+	private void markContaminated(FileReport report, int abandoned) {
+		if (abandoned == 0) {
+			return;
+		}
+		this.contaminatedFiles.incrementAndGet();
+		report.getText().append("Measured while ").append(abandoned)
+		      .append(" timed out files were still running, timings are not reliable").append(System.lineSeparator());
+		for (FileRecord record : report.getRecords()) {
+			record.setAbandonedWorkers(abandoned);
+		}
+	}
+
+	/**
+	 * @param hash content hash of the file, or null if no records are required
+	 * @param phase phase that was running when processing ended, or null if it is not known
+	 * @param details description of the failure appended to the outcome
+	 */
+	private FileReport createFailureReport(final File pdfFile, String hash, Outcome outcome, Phase phase, String details) {
+		FileReport report = new FileReport();
+		String path = pdfFile.getAbsolutePath();
+		String description = outcome + " " + details + (phase == null ? "" : " in phase " + phase.getDescription());
+		report.getText().append(System.lineSeparator())
+		      .append("File: ").append(path).append(System.lineSeparator())
+		      .append(description).append(System.lineSeparator());
+		report.setFailure(path + ": " + description);
+		report.setOutcome(outcome);
+		if (isRecordsRequired()) {
+			for (ModelParserType type : args.getParsers()) {
+				FileRecord record = new FileRecord();
+				record.setPath(path);
+				record.setHash(hash);
+				record.setSize(pdfFile.length());
+				record.setParserType(type);
+				record.setTimings(new PhaseTimings());
+				record.setMemoryUsage(new PhaseMemoryUsage());
+				record.setOutcome(outcome);
+				record.setOutcomePhase(phase);
+				report.addRecord(record);
+			}
+		}
+		return report;
+	}
+
+	private void showFailedFiles() {
+		StringBuilder report = new StringBuilder();
+		report.append(System.lineSeparator());
+		report.append("Files not processed to the end (").append(this.failedFiles.size()).append("):")
+		      .append(System.lineSeparator());
+		for (String file : this.failedFiles) {
+			report.append("	").append(file).append(System.lineSeparator());
+		}
+		this.summaryOut.print(report);
+	}
+
+	private void finishRecording(SlowFileRecorder.FileRecording recording, final File pdfFile, long elapsedNanos, FileReport report) {
+		for (FileRecord record : report.getRecords()) {
+			record.setFlightRecorded(true);
+		}
+		try {
+			Path recordingPath = this.slowFileRecorder.finish(recording, pdfFile, elapsedNanos);
+			if (recordingPath != null) {
+				report.getText().append("Flight recording: ").append(recordingPath.toAbsolutePath())
+				      .append(System.lineSeparator());
+			}
+		} catch (IOException e) {
+			System.err.println("Exception raised while saving flight recording of " + pdfFile.getAbsolutePath());
+			e.printStackTrace();
+		}
 	}
 
 	private static boolean checkFileCanBeProcessed(final File file) {
@@ -93,46 +797,549 @@ final class CliProcessor {
 		return true;
 	}
 
-	private void processStream(final InputStream toProcess, String filePath) throws IOException, ModelParsingException, EncryptedPdfException {
+	private void processPdf(final File pdfFile, String hash, FileReport fileReport, FileProgress progress)
+			throws IOException, ModelParsingException, EncryptedPdfException, ValidationException {
+		StringBuilder report = fileReport.getText();
+
+		report.append(System.lineSeparator());
+		report.append("File: ").append(pdfFile.getAbsolutePath()).append(System.lineSeparator());
+
+		Set<ModelParserType> parserTypes = args.getParsers();
+		ParsersPerformanceChecker checker = null;
+		try {
+			Map<ModelParserType, ValidationResult> validationResults = new EnumMap<>(ModelParserType.class);
+			if (!args.isValidationOff()) {
+				Map<ModelParserType, long[]> samples = new EnumMap<>(ModelParserType.class);
+				for (ModelParserType type : parserTypes) {
+					samples.put(type, new long[args.getIterations()]);
+				}
+				for (int i = -args.getWarmup(); i < args.getIterations(); ++i) {
+					closeChecker(checker);
+					checker = null;
+					progress.setPhase(Phase.PARSER_CREATION);
+					checker = createChecker(pdfFile);
+					progress.setPhase(Phase.VALIDATION);
+					for (ModelParserType type : parserTypes) {
+						checker.getTimeOfValidation(type);
+					}
+					if (i >= 0) {
+						for (ModelParserType type : parserTypes) {
+							samples.get(type)[i] = checker.getPhaseTimings(type).getNanos(Phase.VALIDATION);
+						}
+						if (args.profileRules()) {
+							RuleProfile ruleProfile = checker.getRuleProfile(getPrimaryParserType());
+							fileReport.addCorpusUpdate(() -> this.corpusRuleProfile.merge(ruleProfile));
+						}
+					}
+				}
+				Map<ModelParserType, Long> times = new EnumMap<>(ModelParserType.class);
+				for (ModelParserType type : parserTypes) {
+					validationResults.put(type, checker.getValidationResult(type));
+					times.put(type, Long.valueOf(checker.getTimeOfValidation(type)));
+				}
+				showResults(report, "Validation", times);
+				if (!this.extraProfiles.isEmpty()) {
+					for (ModelParserType type : parserTypes) {
+						showProfileValidations(report, "Profiles validated in one pass" + getParserSuffix(type),
+								checker.getPhaseTimings(type), checker.getProfileValidations(type));
+					}
+				}
+				if (isRepeatedValidation()) {
+					for (ModelParserType type : parserTypes) {
+						showStatistics(report, "Validation statistics" + getParserSuffix(type),
+								TimingStatistics.fromNanos(samples.get(type)));
+						long[] typeSamples = samples.get(type);
+						fileReport.addCorpusUpdate(() -> this.corpusValidationSamples.get(type).add(typeSamples));
+					}
+				}
+			}
+			if (checker == null) {
+				progress.setPhase(Phase.PARSER_CREATION);
+				checker = createChecker(pdfFile);
+			}
+
+			if (args.extractFeatures() || args.profileFeatures()) {
+				progress.setPhase(Phase.FEATURES_EXTRACTION);
+				Map<ModelParserType, Long> times = new EnumMap<>(ModelParserType.class);
+				for (ModelParserType type : parserTypes) {
+					times.put(type, Long.valueOf(checker.getTimeOfFeaturesCollecting(type)));
+				}
+				showResults(report, "Features Extraction", times);
+				if (args.profileFeatures()) {
+					for (ModelParserType type : parserTypes) {
+						Map<FeatureObjectType, Long> featureTimings = checker.getFeatureTypeTimings(type);
+						showFeatureTypeTimings(report, "Features extraction by type" + getParserSuffix(type), featureTimings);
+						if (type == getPrimaryParserType()) {
+							fileReport.addCorpusUpdate(() -> addCorpusFeatureTimings(featureTimings));
+						}
+					}
+				}
+			}
+
+			if (args.fixMetadata()) {
+				progress.setPhase(Phase.METADATA_FIXING);
+				fixMetadata(report, checker);
+			}
+
+			for (ModelParserType type : parserTypes) {
+				showPhaseTimings(report, "Phase timings" + getParserSuffix(type), checker.getPhaseTimings(type),
+						checker.isValidationInstrumented());
+				showPhaseMemoryUsage(report, "Memory usage" + getParserSuffix(type), checker.getPhaseMemoryUsage(type));
+				long[] sample = createScalingSample(pdfFile, checker, type);
+				showThroughput(report, "Throughput" + getParserSuffix(type), sample);
+				if (type == getPrimaryParserType()) {
+					fileReport.addCorpusUpdate(() -> this.corpusScalingSamples.add(sample));
+				}
+			}
+			if (parserTypes.size() > 1) {
+				// assertions of the parsers are compared by validating again
+				progress.setPhase(Phase.VALIDATION);
+				showParsersComparison(report, checker, validationResults);
+			}
+
+			if (isRecordsRequired()) {
+				for (ModelParserType type : parserTypes) {
+					fileReport.addRecord(createRecord(pdfFile, hash, checker, type, validationResults.get(type)));
+				}
+			}
+		} finally {
+			closeChecker(checker);
+		}
+	}
+
+	private ModelParserType getPrimaryParserType() {
+		return args.getParsers().iterator().next();
+	}
+
+	/**
+	 * @return parser name to distinguish section titles when several parsers are compared, empty string otherwise
+	 */
+	private String getParserSuffix(ModelParserType type) {
+		return args.getParsers().size() > 1 ? " (" + type.getDescription() + ")" : "";
+	}
+
+	private void fixMetadata(StringBuilder report, ParsersPerformanceChecker checker) throws ModelParsingException, ValidationException {
+		Map<ModelParserType, Long> times = new EnumMap<>(ModelParserType.class);
+		for (ModelParserType type : args.getParsers()) {
+			times.put(type, Long.valueOf(checker.getTimeOfMetadataFixing(type)));
+		}
+		showResults(report, "Metadata Fixer", times);
+		for (ModelParserType type : args.getParsers()) {
+			MetadataFixerResult fixerResult = checker.getMetadataFixerResult(type);
+			report.append('\t').append(type.getDescription()).append(" repair status: ").append(fixerResult.getRepairStatus())
+					.append(", applied fixes: ").append(fixerResult.getAppliedFixes().size())
+					.append(", output size: ").append(checker.getMetadataFixerOutputSize(type))
+					.append(" bytes").append(System.lineSeparator());
+		}
+	}
+
+	/**
+	 * Shows timings of every parser relative to the first one and differences in their results.
+	 */
+	private void showParsersComparison(StringBuilder report, ParsersPerformanceChecker checker,
+									   Map<ModelParserType, ValidationResult> validationResults) throws ModelParsingException, ValidationException {
+		ModelParserType primary = getPrimaryParserType();
+		PhaseTimings primaryTimings = checker.getPhaseTimings(primary);
+		report.append("Parsers comparison, relative to ").append(primary.getDescription()).append(':')
+		      .append(System.lineSeparator());
+		for (ModelParserType type : args.getParsers()) {
+			if (type == primary) {
+				continue;
+			}
+			PhaseTimings timings = checker.getPhaseTimings(type);
+			report.append('\t').append(type.getDescription()).append(':').append(System.lineSeparator());
+			for (Phase phase : Phase.values()) {
+				if (primaryTimings.isMeasured(phase) && timings.isMeasured(phase) && primaryTimings.getNanos(phase) > 0) {
+					report.append(String.format("		%s: %.2fx", phase.getDescription(),
+							Double.valueOf((double) timings.getNanos(phase) / primaryTimings.getNanos(phase))))
+					      .append(System.lineSeparator());
+				}
+			}
+			ValidationResult primaryResult = validationResults.get(primary);
+			ValidationResult result = validationResults.get(type);
+			if (primaryResult != null && result != null) {
+				showValidationDifference(report, primaryResult, result);
+				TestAssertionMultiset.Difference difference = checker.getFirstAssertionDifference(primary, type);
+				if (difference != null) {
+					report.append("		First differing assertion: ").append(difference).append(System.lineSeparator());
+				}
+			}
+			if (args.extractFeatures() || args.profileFeatures()) {
+				report.append("		Features: ")
+				      .append(checker.getFeaturesCollection(primary).equals(checker.getFeaturesCollection(type)) ? "equal" : "different")
+				      .append(System.lineSeparator());
+			}
+		}
+	}
+
+	private static void showValidationDifference(StringBuilder report, ValidationResult first, ValidationResult second) {
+		Map<RuleId, Integer> firstChecks = first.getFailedChecks();
+		Map<RuleId, Integer> secondChecks = second.getFailedChecks();
+		List<String> differences = new ArrayList<>();
+		for (Map.Entry<RuleId, Integer> entry : firstChecks.entrySet()) {
+			Integer count = secondChecks.get(entry.getKey());
+			if (!entry.getValue().equals(count)) {
+				differences.add(formatRuleId(entry.getKey()) + ": " + entry.getValue() + " vs " + (count == null ? 0 : count));
+			}
+		}
+		for (Map.Entry<RuleId, Integer> entry : secondChecks.entrySet()) {
+			if (!firstChecks.containsKey(entry.getKey())) {
+				differences.add(formatRuleId(entry.getKey()) + ": 0 vs " + entry.getValue());
+			}
+		}
+		report.append("		Compliance: ").append(first.isCompliant()).append(" vs ").append(second.isCompliant())
+		      .append(", assertions: ").append(first.getTotalAssertions()).append(" vs ").append(second.getTotalAssertions())
+		      .append(", rules with different failures: ").append(differences.size()).append(System.lineSeparator());
+		Collections.sort(differences);
+		for (String difference : differences) {
+			report.append("			").append(difference).append(System.lineSeparator());
+		}
+	}
+
+	private static String formatRuleId(RuleId ruleId) {
+		return ruleId.getSpecification() + " " + ruleId.getClause() + "-" + ruleId.getTestNumber();
+	}
+
+	private static void closeChecker(ParsersPerformanceChecker checker) {
+		if (checker == null) {
+			return;
+		}
+		try {
+			checker.close();
+		} catch (IOException e) {
+			System.err.println("Exception raised while closing parsers");
+			e.printStackTrace();
+		}
+	}
+
+	private static FileRecord createRecord(final File pdfFile, String hash, ParsersPerformanceChecker checker,
+										   ModelParserType type, ValidationResult validationResult) {
+		FileRecord record = new FileRecord();
+		record.setPath(pdfFile.getAbsolutePath());
+		record.setHash(hash);
+		record.setSize(pdfFile.length());
+		record.setPageCount(Integer.valueOf(checker.getNumberOfPages(type)));
+		record.setMaxObjectNumber(Integer.valueOf(checker.getMaxObjectNumber(type)));
+		record.setParserType(type);
+		record.setTimings(checker.getPhaseTimings(type));
+		record.setMemoryUsage(checker.getPhaseMemoryUsage(type));
+		record.setInstrumentedValidation(checker.isValidationInstrumented());
+		if (validationResult != null) {
+			record.setFlavour(validationResult.getPDFAFlavour().getId());
+			record.setFailedRules(Integer.valueOf(validationResult.getFailedChecks().size()));
+			record.setCompliant(Boolean.valueOf(validationResult.isCompliant()));
+			record.setAssertionsDigest(Digests.ofAssertions(validationResult.getTestAssertions()));
+		} else {
+			record.setFlavour(checker.getParserFlavour(type).getId());
+		}
+		return record;
+	}
+
+	private static SlowFileRecorder createSlowFileRecorder(final CliArgParser args) throws IOException {
+		if (args.getJfrDirectory() == null) {
+			return null;
+		}
+		try {
+			return new SlowFileRecorder(args.getJfrDirectory(), args.getJfrThreshold());
+		} catch (NoClassDefFoundError e) {
+			System.err.println("Java Flight Recorder is not supported by this JVM, files are processed without recording");
+			return null;
+		}
+	}
+
+	/**
+	 * Loads the validation profile once per run, the instance is shared by all files and threads.
+	 */
+	private static ValidationProfile loadProfile(final CliArgParser args) {
 		File profileFile = args.getProfileFile();
+		if (profileFile == null) {
+			return null;
+		}
 		ValidationProfile profile = null;
-		try {
-			profile = profileFile == null ? null : Profiles.profileFromXml(new FileInputStream(profileFile));
-		} catch (JAXBException | FileNotFoundException e) {
+		try (InputStream is = new FileInputStream(profileFile)) {
+			profile = Profiles.profileFromXml(is);
+		} catch (JAXBException | IOException e) {
 			System.err.println("Can not load validation profile. Process starts with using "
 					+ (args.getFlavour() == PDFAFlavour.NO_FLAVOUR ? "default" : args.getFlavour().getId())
 					+ " flavour");
 			e.printStackTrace();
 		}
-		ParsersPerformanceChecker checker = profile == null ?
-				ParsersPerformanceChecker.createCheckerWithFlavour(toProcess, args.getFlavour(), !args.hidePassed(), args.maxFailures())
-				: ParsersPerformanceChecker.createCheckerWithProfile(toProcess, profile, !args.hidePassed(), args.maxFailures());
-
-		System.out.println();
-		System.out.println("File: " + filePath);
+		return profile;
+	}
 
-		if (!args.isValidationOff()) {
-			try {
-				showResults("Validation", checker.getTimeOfValidation(ModelParserType.GREENFIELD));
-			} catch (ValidationException e) {
-				System.err.println("Exception during one of validations");
+	/**
+	 * Loads profiles of the extra flavours and profile files, profiles that can not be loaded are skipped.
+	 */
+	private static List<ValidationProfile> loadExtraProfiles(final CliArgParser args) {
+		List<ValidationProfile> profiles = new ArrayList<>();
+		for (PDFAFlavour flavour : args.getExtraFlavours()) {
+			profiles.add(Profiles.getVeraProfileDirectory().getValidationProfileByFlavour(flavour));
+		}
+		for (File profileFile : args.getExtraProfileFiles()) {
+			try (InputStream is = new FileInputStream(profileFile)) {
+				profiles.add(Profiles.profileFromXml(is));
+			} catch (JAXBException | IOException e) {
+				System.err.println("Can not load validation profile " + profileFile.getAbsolutePath() + ", it is skipped");
 				e.printStackTrace();
 			}
 		}
+		return profiles;
+	}
+
+	private ParsersPerformanceChecker createChecker(final File pdfFile) throws IOException, ModelParsingException, EncryptedPdfException {
+		ParsersPerformanceChecker checker = this.profile == null ?
+				ParsersPerformanceChecker.createCheckerWithFlavour(pdfFile, args.getFlavour(), !args.hidePassed(), args.maxFailures(), args.getParsers())
+				: ParsersPerformanceChecker.createCheckerWithProfile(pdfFile, this.profile, !args.hidePassed(), args.maxFailures(), args.getParsers());
+		if (args.profileRules()) {
+			checker.enableRuleProfiling();
+		}
+		checker.setFeatureTypes(args.getFeatureTypes());
+		if (!this.extraProfiles.isEmpty()) {
+			checker.setAdditionalProfiles(this.extraProfiles);
+		}
+		if (args.profileFeatures()) {
+			checker.enableFeatureTypeTiming();
+		}
+		return checker;
+	}
 
-//		if (args.fixMetadata()) {
-//			showResults("Metadata Fixer", checker.getTimeOfMetadataFixing(ModelParserType.GREENFIELD));
-//		}
+	private boolean isRepeatedValidation() {
+		return args.getWarmup() > 0 || args.getIterations() > 1;
+	}
 
-		if (args.extractFeatures()) {
-			showResults("Features Extraction",
-					checker.getTimeOfFeaturesCollecting(ModelParserType.GREENFIELD));
+	private void showCorpusStatistics() {
+		for (ModelParserType type : args.getParsers()) {
+			showCorpusStatistics(type);
 		}
 	}
 
-	private void showResults(String processType, long greenfieldTime) {
-		System.out.println(processType + " results:");
-		System.out.println("	" + convertMillisToHumanReadableTime(greenfieldTime) + " Greenfield based time");
+	private void showCorpusStatistics(ModelParserType type) {
+		List<long[]> fileSamples = new ArrayList<>(this.corpusValidationSamples.get(type));
+		int count = 0;
+		for (long[] samples : fileSamples) {
+			count += samples.length;
+		}
+		if (count == 0) {
+			return;
+		}
+		long[] corpusSamples = new long[count];
+		int position = 0;
+		for (long[] samples : fileSamples) {
+			System.arraycopy(samples, 0, corpusSamples, position, samples.length);
+			position += samples.length;
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(System.lineSeparator());
+		report.append("Corpus: ").append(fileSamples.size()).append(" files").append(System.lineSeparator());
+		showStatistics(report, "Validation statistics" + getParserSuffix(type), TimingStatistics.fromNanos(corpusSamples));
+		this.summaryOut.print(report);
+	}
+
+	private void showRuleProfile() {
+		StringBuilder report = new StringBuilder();
+		long total = this.corpusRuleProfile.getTotalNanos();
+		report.append(System.lineSeparator());
+		report.append(String.format("Rule evaluation profile (%.3f ms in total):", Double.valueOf(total / NANOS_IN_MS)))
+		      .append(System.lineSeparator());
+		report.append(String.format("	%5s %12s %7s %12s %10s  %s", "Rank", "Time, ms", "Share", "Calls", "Avg, us", "Rule (object)"))
+		      .append(System.lineSeparator());
+		int rank = 0;
+		for (RuleProfile.RuleCost cost : this.corpusRuleProfile.getRankedRules()) {
+			RuleId ruleId = cost.getRuleId();
+			report.append(String.format("	%5d %12.3f %6.2f%% %12d %10.3f  %s %s-%d (%s)", Integer.valueOf(++rank),
+					Double.valueOf(cost.getNanos() / NANOS_IN_MS), Double.valueOf(share(cost.getNanos(), total)),
+					Long.valueOf(cost.getInvocations()), Double.valueOf(cost.getNanos() / 1000.0 / cost.getInvocations()),
+					ruleId.getSpecification(), ruleId.getClause(), Integer.valueOf(ruleId.getTestNumber()), cost.getObject()))
+			      .append(System.lineSeparator());
+		}
+		report.append("Rule evaluation cost by object type:").append(System.lineSeparator());
+		for (Map.Entry<String, RuleProfile.Cost> entry : this.corpusRuleProfile.getRankedObjectTypes()) {
+			RuleProfile.Cost cost = entry.getValue();
+			report.append(String.format("	%12.3f ms %6.2f%% %12d calls  %s", Double.valueOf(cost.getNanos() / NANOS_IN_MS),
+					Double.valueOf(share(cost.getNanos(), total)), Long.valueOf(cost.getInvocations()), entry.getKey()))
+			      .append(System.lineSeparator());
+		}
+		this.summaryOut.print(report);
+	}
+
+	/**
+	 * @return file size, page count, object count and time in nanoseconds: of validation if it has
+	 * been measured, of all measured phases otherwise
+	 */
+	private static long[] createScalingSample(final File pdfFile, ParsersPerformanceChecker checker, ModelParserType type) {
+		PhaseTimings timings = checker.getPhaseTimings(type);
+		long nanos = timings.isMeasured(Phase.VALIDATION) ? timings.getNanos(Phase.VALIDATION) : timings.getTotalNanos();
+		return new long[] { pdfFile.length(), checker.getNumberOfPages(type), checker.getMaxObjectNumber(type), nanos };
+	}
+
+	private static void showThroughput(StringBuilder report, String title, long[] sample) {
+		double seconds = sample[SAMPLE_NANOS] / NANOS_IN_SEC;
+		if (seconds <= 0) {
+			return;
+		}
+		report.append(title).append(String.format(": %.2f pages/s, %.2f MB/s, %.0f objects/s",
+				Double.valueOf(sample[SAMPLE_PAGES] / seconds), Double.valueOf(sample[SAMPLE_SIZE] / BYTES_IN_MB / seconds),
+				Double.valueOf(sample[SAMPLE_OBJECTS] / seconds))).append(System.lineSeparator());
+	}
+
+	private void showScaling() {
+		List<long[]> samples = new ArrayList<>(this.corpusScalingSamples);
+		if (samples.isEmpty()) {
+			return;
+		}
+		long[] total = new long[SAMPLE_NANOS + 1];
+		double[] sizes = new double[samples.size()];
+		double[] pages = new double[samples.size()];
+		double[] objects = new double[samples.size()];
+		double[] times = new double[samples.size()];
+		for (int i = 0; i < samples.size(); ++i) {
+			long[] sample = samples.get(i);
+			for (int j = 0; j < total.length; ++j) {
+				total[j] += sample[j];
+			}
+			sizes[i] = sample[SAMPLE_SIZE];
+			pages[i] = sample[SAMPLE_PAGES];
+			objects[i] = sample[SAMPLE_OBJECTS];
+			times[i] = sample[SAMPLE_NANOS];
+		}
+		StringBuilder report = new StringBuilder();
+		report.append(System.lineSeparator());
+		report.append("Corpus: ").append(samples.size()).append(" files, ").append(total[SAMPLE_PAGES]).append(" pages, ")
+		      .append(String.format("%.1f MB", Double.valueOf(total[SAMPLE_SIZE] / BYTES_IN_MB))).append(System.lineSeparator());
+		showThroughput(report, "Aggregate throughput", total);
+		report.append("Time scaling, time ~ x^exponent:").append(System.lineSeparator());
+		appendScalingFit(report, "file size", ScalingFit.fit(sizes, times));
+		appendScalingFit(report, "page count", ScalingFit.fit(pages, times));
+		appendScalingFit(report, "max object number", ScalingFit.fit(objects, times));
+		this.summaryOut.print(report);
+	}
+
+	private static void appendScalingFit(StringBuilder report, String name, ScalingFit fit) {
+		report.append("	").append(name).append(": ");
+		if (fit == null) {
+			report.append("not enough distinct values");
+		} else {
+			report.append(String.format("exponent %.3f, R^2 %.3f, %d files", Double.valueOf(fit.getExponent()),
+					Double.valueOf(fit.getRSquared()), Integer.valueOf(fit.getCount())));
+			if (fit.getExponent() > 1) {
+				report.append(", super-linear");
+			}
+		}
+		report.append(System.lineSeparator());
+	}
+
+	private void addCorpusFeatureTimings(Map<FeatureObjectType, Long> featureTimings) {
+		synchronized (this.corpusFeatureTimings) {
+			for (Map.Entry<FeatureObjectType, Long> entry : featureTimings.entrySet()) {
+				this.corpusFeatureTimings.merge(entry.getKey(), entry.getValue(), Long::sum);
+			}
+		}
+	}
+
+	/**
+	 * Shows feature types ranked by extraction time.
+	 */
+	private static void showFeatureTypeTimings(StringBuilder report, String title, Map<FeatureObjectType, Long> featureTimings) {
+		long total = 0;
+		for (Long nanos : featureTimings.values()) {
+			total += nanos.longValue();
+		}
+		List<Map.Entry<FeatureObjectType, Long>> ranked = new ArrayList<>(featureTimings.entrySet());
+		ranked.sort(Map.Entry.<FeatureObjectType, Long>comparingByValue().reversed());
+		report.append(title).append(String.format(" (%.3f ms in total):", Double.valueOf(total / NANOS_IN_MS)))
+		      .append(System.lineSeparator());
+		for (Map.Entry<FeatureObjectType, Long> entry : ranked) {
+			long nanos = entry.getValue().longValue();
+			report.append(String.format("	%12.3f ms %6.2f%%  %s", Double.valueOf(nanos / NANOS_IN_MS),
+					Double.valueOf(share(nanos, total)), entry.getKey().getFullName()))
+			      .append(System.lineSeparator());
+		}
+	}
+
+	private static double share(long part, long total) {
+		return total == 0 ? 0 : part * 100.0 / total;
+	}
+
+	private static void showStatistics(StringBuilder report, String title, TimingStatistics statistics) {
+		report.append(title).append(" (").append(statistics.getCount()).append(" runs):").append(System.lineSeparator());
+		appendMillis(report, "min", statistics.getMin());
+		appendMillis(report, "median", statistics.getMedian());
+		appendMillis(report, "p90", statistics.getP90());
+		appendMillis(report, "p99", statistics.getP99());
+		appendMillis(report, "max", statistics.getMax());
+		report.append("	stddev: ")
+		      .append(String.format("%.3f ms", Double.valueOf(statistics.getStandardDeviation() / NANOS_IN_MS)))
+		      .append(System.lineSeparator());
+	}
+
+	private static void appendMillis(StringBuilder report, String name, long nanos) {
+		report.append("	").append(name).append(": ")
+		      .append(String.format("%.3f ms", Double.valueOf(nanos / NANOS_IN_MS)))
+		      .append(System.lineSeparator());
+	}
+
+	/**
+	 * Shows parsing and the object tree walk, shared by all profiles, separately from rule evaluation of every profile.
+	 */
+	private static void showProfileValidations(StringBuilder report, String title, PhaseTimings timings,
+											   List<ProfileValidation> profileValidations) {
+		long ruleNanos = 0;
+		for (ProfileValidation profileValidation : profileValidations) {
+			ruleNanos += profileValidation.getRuleNanos();
+		}
+		report.append(title).append(':').append(System.lineSeparator());
+		appendMillis(report, "shared parsing", timings.getNanos(Phase.PARSER_CREATION));
+		appendMillis(report, "shared object tree walk", timings.getNanos(Phase.VALIDATION) - ruleNanos);
+		for (ProfileValidation profileValidation : profileValidations) {
+			ValidationProfile validationProfile = profileValidation.getProfile();
+			ValidationResult result = profileValidation.getResult();
+			String name = validationProfile.getPDFAFlavour() == PDFAFlavour.NO_FLAVOUR
+					? validationProfile.getDetails().getName() : validationProfile.getPDFAFlavour().getId();
+			if (result == null) {
+				report.append("	").append(name).append(": skipped, incompatible with the main profile")
+				      .append(System.lineSeparator());
+				continue;
+			}
+			report.append(String.format("	%s: rules %.3f ms, compliant %s, failed rules %d", name,
+					Double.valueOf(profileValidation.getRuleNanos() / NANOS_IN_MS), Boolean.valueOf(result.isCompliant()),
+					Integer.valueOf(result.getFailedChecks().size()))).append(System.lineSeparator());
+		}
+	}
+
+	private static void showPhaseMemoryUsage(StringBuilder report, String title, PhaseMemoryUsage memoryUsage) {
+		report.append(title).append(':').append(System.lineSeparator());
+		for (Map.Entry<Phase, PhaseMemory> entry : memoryUsage.asMap().entrySet()) {
+			PhaseMemory memory = entry.getValue();
+			report.append("	").append(entry.getKey().getDescription()).append(": allocated ")
+			      .append(memory.getAllocatedBytes() < 0 ? "n/a" : String.format("%.1f MB", Double.valueOf(memory.getAllocatedBytes() / BYTES_IN_MB)))
+			      .append(", sum of heap pool peaks ")
+			      .append(memory.getPeakHeapBytes() < 0 ? "n/a" : String.format("%.1f MB", Double.valueOf(memory.getPeakHeapBytes() / BYTES_IN_MB)))
+			      .append(String.format(", %d GC (%d ms)", Long.valueOf(memory.getGcCount()), Long.valueOf(memory.getGcTimeMillis())))
+			      .append(System.lineSeparator());
+		}
+	}
+
+	/**
+	 * @param instrumentedValidation true if the validation time includes timing of every rule evaluation
+	 */
+	private static void showPhaseTimings(StringBuilder report, String title, PhaseTimings timings, boolean instrumentedValidation) {
+		report.append(title).append(':').append(System.lineSeparator());
+		for (Map.Entry<Phase, Long> entry : timings.asMap().entrySet()) {
+			String description = entry.getKey().getDescription();
+			if (entry.getKey() == Phase.VALIDATION && instrumentedValidation) {
+				description += " (instrumented, every rule evaluation is timed)";
+			}
+			appendMillis(report, description, entry.getValue().longValue());
+		}
+	}
+
+	private void showResults(StringBuilder report, String processType, Map<ModelParserType, Long> times) {
+		report.append(processType).append(" results:").append(System.lineSeparator());
+		for (Map.Entry<ModelParserType, Long> entry : times.entrySet()) {
+			report.append("	").append(convertMillisToHumanReadableTime(entry.getValue().longValue()))
+			      .append(' ').append(entry.getKey().getDescription()).append(" based time")
+			      .append(System.lineSeparator());
+		}
 	}
 
 	private String convertMillisToHumanReadableTime(long millis) {
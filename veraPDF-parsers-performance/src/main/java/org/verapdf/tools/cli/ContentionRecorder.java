@@ -0,0 +1,120 @@
+package org.verapdf.tools.cli;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records blocking on monitors and parking of threads with Java Flight Recorder and
+ * summarises where threads waited longest, by the class of the lock and the first
+ * frame outside of the JDK.
+ */
+final class ContentionRecorder {
+
+	private static final String MONITOR_ENTER = "jdk.JavaMonitorEnter";
+	private static final String THREAD_PARK = "jdk.ThreadPark";
+	private static final Duration THRESHOLD = Duration.ofMillis(1);
+	private static final int TOP_SITES = 10;
+	private static final double NANOS_IN_MS = 1_000_000.0;
+
+	private final File directory;
+
+	/**
+	 * @param directory directory to keep recordings in, or null if they should be discarded after summarising
+	 */
+	ContentionRecorder(File directory) throws IOException {
+		this.directory = directory;
+		if (directory != null) {
+			Files.createDirectories(directory.toPath());
+		}
+	}
+
+	ContentionRecording start() {
+		Recording recording = new Recording();
+		recording.enable(MONITOR_ENTER).withThreshold(THRESHOLD).withStackTrace();
+		recording.enable(THREAD_PARK).withThreshold(THRESHOLD).withStackTrace();
+		recording.start();
+		return new ContentionRecording(recording);
+	}
+
+	/**
+	 * Stops the recording and ranks the places where threads waited.
+	 *
+	 * @param name name of the kept recording, without extension
+	 * @return lines of the summary, the longest waits first
+	 */
+	List<String> finish(ContentionRecording contentionRecording, String name) throws IOException {
+		Recording recording = contentionRecording.recording;
+		Path path = this.directory == null ? Files.createTempFile("contention", ".jfr")
+				: this.directory.toPath().resolve(name + ".jfr");
+		try {
+			recording.stop();
+			recording.dump(path);
+			return summarise(RecordingFile.readAllEvents(path));
+		} finally {
+			recording.close();
+			if (this.directory == null) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	private static List<String> summarise(List<RecordedEvent> events) {
+		Map<String, long[]> sites = new HashMap<>();
+		for (RecordedEvent event : events) {
+			String type = event.getEventType().getName();
+			RecordedClass lockClass = MONITOR_ENTER.equals(type) ? event.getClass("monitorClass") : event.getClass("parkedClass");
+			String site = (MONITOR_ENTER.equals(type) ? "monitor " : "park ")
+					+ (lockClass == null ? "?" : lockClass.getName()) + " at " + getCaller(event.getStackTrace());
+			long[] cost = sites.computeIfAbsent(site, key -> new long[2]);
+			cost[0] += event.getDuration().toNanos();
+			++cost[1];
+		}
+		List<Map.Entry<String, long[]>> ranked = new ArrayList<>(sites.entrySet());
+		ranked.sort((first, second) -> Long.compare(second.getValue()[0], first.getValue()[0]));
+		List<String> res = new ArrayList<>();
+		for (Map.Entry<String, long[]> entry : ranked.subList(0, Math.min(TOP_SITES, ranked.size()))) {
+			res.add(String.format("%12.3f ms %8d waits  %s", Double.valueOf(entry.getValue()[0] / NANOS_IN_MS),
+					Long.valueOf(entry.getValue()[1]), entry.getKey()));
+		}
+		return res;
+	}
+
+	private static String getCaller(RecordedStackTrace stackTrace) {
+		if (stackTrace == null) {
+			return "unknown";
+		}
+		for (RecordedFrame frame : stackTrace.getFrames()) {
+			String className = frame.getMethod().getType().getName();
+			if (!className.startsWith("java.") && !className.startsWith("jdk.") && !className.startsWith("sun.")) {
+				return className + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+			}
+		}
+		return "JDK";
+	}
+
+	/**
+	 * Running recording. Keeps Flight Recorder classes out of the callers,
+	 * so they can be loaded on JVMs without Flight Recorder.
+	 */
+	static final class ContentionRecording {
+		private final Recording recording;
+
+		private ContentionRecording(Recording recording) {
+			this.recording = recording;
+		}
+	}
+}
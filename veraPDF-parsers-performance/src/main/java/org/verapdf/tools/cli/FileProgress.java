@@ -0,0 +1,46 @@
+package org.verapdf.tools.cli;
+
+import org.verapdf.tools.performance.Phase;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Phase a file is currently in, written by the worker and read by the watchdog
+ * to tell where a timed out file got stuck. Also tells whether the worker has finished
+ * or has been abandoned by the watchdog, whichever happened first.
+ */
+final class FileProgress {
+
+	private static final int RUNNING = 0;
+	private static final int FINISHED = 1;
+	private static final int ABANDONED = 2;
+
+	private volatile Phase phase = Phase.PARSER_CREATION;
+	private final AtomicInteger state = new AtomicInteger(RUNNING);
+
+	Phase getPhase() {
+		return this.phase;
+	}
+
+	void setPhase(Phase phase) {
+		this.phase = phase;
+	}
+
+	/**
+	 * Called by the worker when processing ends.
+	 *
+	 * @return true if the file has been abandoned by the watchdog before
+	 */
+	boolean finish() {
+		return !this.state.compareAndSet(RUNNING, FINISHED);
+	}
+
+	/**
+	 * Called by the watchdog when the file times out.
+	 *
+	 * @return true if the worker is still running and has been abandoned
+	 */
+	boolean abandon() {
+		return this.state.compareAndSet(RUNNING, ABANDONED);
+	}
+}
@@ -0,0 +1,93 @@
+package org.verapdf.tools.cli;
+
+import org.verapdf.tools.report.FileRecord;
+import org.verapdf.tools.report.Outcome;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Output of processing one file: the text report, the machine-readable records and the
+ * contributions to corpus statistics. Contributions are applied only when the report is
+ * written, so files abandoned on timeout do not affect the corpus statistics.
+ */
+final class FileReport {
+
+	private final StringBuilder text = new StringBuilder();
+	private final List<FileRecord> records = new ArrayList<>();
+	private final List<Runnable> corpusUpdates = new ArrayList<>();
+	private String failure;
+	private Outcome outcome = Outcome.OK;
+	private String path;
+	private String hash;
+	private boolean resumed;
+
+	StringBuilder getText() {
+		return this.text;
+	}
+
+	List<FileRecord> getRecords() {
+		return this.records;
+	}
+
+	void addRecord(FileRecord record) {
+		this.records.add(record);
+	}
+
+	List<Runnable> getCorpusUpdates() {
+		return this.corpusUpdates;
+	}
+
+	void addCorpusUpdate(Runnable update) {
+		this.corpusUpdates.add(update);
+	}
+
+	/**
+	 * @return description of how processing of the file ended abnormally, or null if it has been processed to the end
+	 */
+	String getFailure() {
+		return this.failure;
+	}
+
+	void setFailure(String failure) {
+		this.failure = failure;
+	}
+
+	Outcome getOutcome() {
+		return this.outcome;
+	}
+
+	void setOutcome(Outcome outcome) {
+		this.outcome = outcome;
+	}
+
+	/**
+	 * @return path of the file as written to the journal, or null if no journal is kept
+	 */
+	String getPath() {
+		return this.path;
+	}
+
+	/**
+	 * @return content hash of the file as written to the journal, or null if no journal is kept
+	 */
+	String getHash() {
+		return this.hash;
+	}
+
+	void setJournalEntry(String path, String hash) {
+		this.path = path;
+		this.hash = hash;
+	}
+
+	/**
+	 * @return true if the records are taken from the journal of the interrupted run
+	 */
+	boolean isResumed() {
+		return this.resumed;
+	}
+
+	void setResumed(boolean resumed) {
+		this.resumed = resumed;
+	}
+}
@@ -0,0 +1,103 @@
+package org.verapdf.tools.cli;
+
+import org.verapdf.tools.report.FileRecord;
+import org.verapdf.tools.report.Outcome;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only journal of processed files, one tab separated line per file: tool version,
+ * content hash, outcome, serialized report records of the file and path. Every line is synced
+ * to disk as soon as it is written, so the journal survives termination of the run at any moment
+ * and the records of processed files can be written again to the report of a resumed run.
+ * Only files whose latest entry is {@link Outcome#OK} are taken over, all other files are processed again.
+ */
+final class Journal implements Closeable {
+
+	private static final char SEPARATOR = '\t';
+	private static final int FIELDS = 5;
+
+	private final String toolVersion;
+	private final Map<String, List<FileRecord>> measuredRecords = new HashMap<>();
+	private final FileOutputStream out;
+
+	/**
+	 * @param load true if entries already in the journal should be loaded, see {@link #getMeasuredRecords(String)}
+	 */
+	Journal(File file, String toolVersion, boolean load) throws IOException {
+		this.toolVersion = toolVersion;
+		if (load && file.isFile()) {
+			try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8))) {
+				for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+					String[] fields = line.split(String.valueOf(SEPARATOR), FIELDS);
+					// a line cut off by termination of the previous run has less fields
+					if (fields.length == FIELDS && fields[0].equals(toolVersion)) {
+						List<FileRecord> records = Outcome.OK.name().equals(fields[2]) ? decodeRecords(fields[3]) : null;
+						if (records != null) {
+							this.measuredRecords.put(fields[1], records);
+						} else {
+							this.measuredRecords.remove(fields[1]);
+						}
+					}
+				}
+			}
+		}
+		this.out = new FileOutputStream(file, true);
+	}
+
+	/**
+	 * @return records of the file with the given content processed successfully by the same tool version
+	 * in a previous run, or null if the file has to be processed
+	 */
+	List<FileRecord> getMeasuredRecords(String hash) {
+		return this.measuredRecords.get(hash);
+	}
+
+	void append(String path, String hash, Outcome outcome, List<FileRecord> records) throws IOException {
+		String line = this.toolVersion + SEPARATOR + hash + SEPARATOR + outcome.name() + SEPARATOR
+				+ encodeRecords(records) + SEPARATOR + path + '\n';
+		this.out.write(line.getBytes(StandardCharsets.UTF_8));
+		this.out.getFD().sync();
+	}
+
+	private static String encodeRecords(List<FileRecord> records) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream objectOut = new ObjectOutputStream(bytes)) {
+			objectOut.writeObject(new ArrayList<>(records));
+		}
+		return Base64.getEncoder().encodeToString(bytes.toByteArray());
+	}
+
+	/**
+	 * @return the records, or null if they can not be read, so the file is processed again
+	 */
+	@SuppressWarnings("unchecked")
+	private static List<FileRecord> decodeRecords(String encoded) {
+		try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(encoded)))) {
+			return (List<FileRecord>) objectIn.readObject();
+		} catch (IOException | ClassNotFoundException | IllegalArgumentException | ClassCastException e) {
+			return null;
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.out.close();
+	}
+}
@@ -0,0 +1,90 @@
+package org.verapdf.tools.cli;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records every file with Java Flight Recorder and keeps the recording only if processing
+ * of the file took longer than the threshold. Recordings are named after the input file.
+ * <p>
+ * Flight Recorder is JVM wide, so with several worker threads a recording also contains
+ * events of files processed at the same time.
+ */
+final class SlowFileRecorder {
+
+	private static final String SETTINGS = "profile";
+	private static final String EXTENSION = ".jfr";
+
+	private final File directory;
+	private final long thresholdNanos;
+	private final Configuration configuration;
+
+	SlowFileRecorder(File directory, double thresholdMillis) throws IOException {
+		this.directory = directory;
+		this.thresholdNanos = (long) (thresholdMillis * TimeUnit.MILLISECONDS.toNanos(1));
+		try {
+			this.configuration = Configuration.getConfiguration(SETTINGS);
+		} catch (ParseException e) {
+			throw new IOException("Can not load Flight Recorder settings " + SETTINGS, e);
+		}
+		Files.createDirectories(directory.toPath());
+	}
+
+	FileRecording start(final File pdfFile) {
+		Recording recording = new Recording(this.configuration);
+		recording.setName(pdfFile.getName());
+		recording.setToDisk(true);
+		recording.start();
+		return new FileRecording(recording);
+	}
+
+	/**
+	 * Stops the recording and writes it if the file was processed slower than the threshold.
+	 *
+	 * @return path of the written recording, or null if the recording has been discarded
+	 */
+	Path finish(FileRecording fileRecording, final File pdfFile, long elapsedNanos) throws IOException {
+		Recording recording = fileRecording.recording;
+		try {
+			recording.stop();
+			if (elapsedNanos < this.thresholdNanos) {
+				return null;
+			}
+			Path destination = createDestination(pdfFile);
+			recording.dump(destination);
+			return destination;
+		} finally {
+			recording.close();
+		}
+	}
+
+	private synchronized Path createDestination(final File pdfFile) throws IOException {
+		String name = pdfFile.getName();
+		int extIndex = name.lastIndexOf('.');
+		String baseName = extIndex > 0 ? name.substring(0, extIndex) : name;
+		Path destination = this.directory.toPath().resolve(baseName + EXTENSION);
+		for (int i = 1; Files.exists(destination); ++i) {
+			destination = this.directory.toPath().resolve(baseName + "-" + i + EXTENSION);
+		}
+		return Files.createFile(destination);
+	}
+
+	/**
+	 * Recording of a single file. Keeps Flight Recorder classes out of the callers,
+	 * so they can be loaded on JVMs without Flight Recorder.
+	 */
+	static final class FileRecording {
+		private final Recording recording;
+
+		private FileRecording(Recording recording) {
+			this.recording = recording;
+		}
+	}
+}
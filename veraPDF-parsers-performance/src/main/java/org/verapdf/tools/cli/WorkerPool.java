@@ -0,0 +1,220 @@
+package org.verapdf.tools.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pool of worker JVMs processing one file at a time each. Requests are written to the standard
+ * input of a worker, one per line: the content hash of the file known to the coordinator, or an
+ * empty string, a tab and the absolute path of the file. Every file is answered with
+ * a serialized {@link WorkerResult} on its standard output. Standard error is inherited.
+ * A worker that terminates without an answer is replaced with a new one, as is a worker
+ * that does not answer within the deadline of a file: it is killed, so hung files do not
+ * block a worker for the rest of the run.
+ */
+final class WorkerPool implements Closeable {
+
+	/**
+	 * Exit code of a worker that has run out of memory, the same as the one of
+	 * {@code -XX:+ExitOnOutOfMemoryError}.
+	 */
+	static final int OUT_OF_MEMORY_EXIT_CODE = 3;
+	static final char REQUEST_SEPARATOR = '\t';
+	private static final long EXIT_WAIT_SECONDS = 10;
+
+	private final List<Worker> workers = new ArrayList<>();
+	private final BlockingQueue<Worker> idleWorkers;
+	private final int timeoutSeconds;
+	private final ScheduledExecutorService deadlines;
+
+	/**
+	 * @param timeoutSeconds wall clock budget of a file, 0 for no limit
+	 */
+	WorkerPool(List<String> command, int size, int timeoutSeconds) throws IOException {
+		this.timeoutSeconds = timeoutSeconds;
+		this.deadlines = timeoutSeconds > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "worker-deadline");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+		this.idleWorkers = new ArrayBlockingQueue<>(size);
+		for (int i = 0; i < size; ++i) {
+			Worker worker = new Worker(command);
+			this.workers.add(worker);
+			worker.start();
+			this.idleWorkers.add(worker);
+		}
+	}
+
+	/**
+	 * Processes the file in the next idle worker, waiting for one if all are busy.
+	 *
+	 * @param hash content hash of the file passed to the worker, so it does not read the file again, or null
+	 * @throws WorkerTimeoutException if the worker has not answered within the deadline and has been killed
+	 * @throws WorkerFailedException if the worker has terminated before answering
+	 * @throws IOException if the terminated worker can not be restarted
+	 */
+	WorkerResult process(final File pdfFile, String hash) throws IOException, InterruptedException {
+		Worker worker = this.idleWorkers.take();
+		try {
+			worker.ensureStarted();
+			AtomicBoolean expired = new AtomicBoolean();
+			// the process is captured, so a late deadline can not kill the restarted worker
+			Process process = worker.process;
+			ScheduledFuture<?> deadline = this.deadlines == null ? null : this.deadlines.schedule(() -> {
+				expired.set(true);
+				process.destroyForcibly();
+			}, this.timeoutSeconds, TimeUnit.SECONDS);
+			WorkerResult result;
+			try {
+				result = worker.process(pdfFile, hash);
+			} catch (IOException | ClassNotFoundException e) {
+				if (deadline != null) {
+					deadline.cancel(false);
+				}
+				int exitCode = worker.terminate();
+				worker.start();
+				if (expired.get()) {
+					throw new WorkerTimeoutException(pdfFile, this.timeoutSeconds, e);
+				}
+				throw new WorkerFailedException(pdfFile, exitCode, e);
+			}
+			if (deadline != null && !deadline.cancel(false)) {
+				// the answer came just in time, but the worker is being killed
+				worker.terminate();
+				worker.start();
+			}
+			return result;
+		} finally {
+			this.idleWorkers.put(worker);
+		}
+	}
+
+	/**
+	 * Closes the standard input of every worker and waits for them to exit.
+	 */
+	@Override
+	public void close() {
+		if (this.deadlines != null) {
+			this.deadlines.shutdownNow();
+		}
+		for (Worker worker : this.workers) {
+			worker.close();
+		}
+	}
+
+	/**
+	 * Worker JVM that has terminated while processing a file.
+	 */
+	static final class WorkerFailedException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int exitCode;
+
+		private WorkerFailedException(final File pdfFile, int exitCode, Throwable cause) {
+			super("Worker terminated with exit code " + exitCode + " while processing " + pdfFile.getAbsolutePath(), cause);
+			this.exitCode = exitCode;
+		}
+
+		int getExitCode() {
+			return this.exitCode;
+		}
+	}
+
+	/**
+	 * Worker JVM that has been killed because it has not answered within the deadline of a file.
+	 */
+	static final class WorkerTimeoutException extends IOException {
+
+		private static final long serialVersionUID = 1L;
+
+		private WorkerTimeoutException(final File pdfFile, int timeoutSeconds, Throwable cause) {
+			super("Worker has not answered within " + timeoutSeconds + " s while processing " + pdfFile.getAbsolutePath(), cause);
+		}
+	}
+
+	private static final class Worker {
+		private final List<String> command;
+		private Process process;
+		private Writer requests;
+		private ObjectInputStream results;
+
+		private Worker(List<String> command) {
+			this.command = command;
+		}
+
+		private void start() throws IOException {
+			this.process = new ProcessBuilder(this.command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+			this.requests = new BufferedWriter(new OutputStreamWriter(this.process.getOutputStream(), StandardCharsets.UTF_8));
+			this.results = null;
+		}
+
+		private void ensureStarted() throws IOException {
+			if (this.process == null) {
+				start();
+			}
+		}
+
+		private WorkerResult process(final File pdfFile, String hash) throws IOException, ClassNotFoundException {
+			ensureStarted();
+			this.requests.write(hash == null ? "" : hash);
+			this.requests.write(REQUEST_SEPARATOR);
+			this.requests.write(pdfFile.getAbsolutePath());
+			this.requests.write('\n');
+			this.requests.flush();
+			if (this.results == null) {
+				// reads the stream header written by the worker on start up
+				this.results = new ObjectInputStream(new BufferedInputStream(this.process.getInputStream()));
+			}
+			return (WorkerResult) this.results.readObject();
+		}
+
+		/**
+		 * Waits for the worker to exit, kills it if it does not.
+		 *
+		 * @return exit code of the worker
+		 */
+		private int terminate() throws InterruptedException {
+			Process terminated = this.process;
+			this.process = null;
+			if (!terminated.waitFor(EXIT_WAIT_SECONDS, TimeUnit.SECONDS)) {
+				terminated.destroyForcibly();
+				terminated.waitFor();
+			}
+			return terminated.exitValue();
+		}
+
+		private void close() {
+			Process running = this.process;
+			if (running == null) {
+				return;
+			}
+			try {
+				this.requests.close();
+				terminate();
+			} catch (IOException e) {
+				running.destroyForcibly();
+			} catch (InterruptedException e) {
+				running.destroyForcibly();
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+}
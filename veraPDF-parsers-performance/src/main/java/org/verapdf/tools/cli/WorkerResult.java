@@ -0,0 +1,39 @@
+package org.verapdf.tools.cli;
+
+import org.verapdf.tools.report.FileRecord;
+import org.verapdf.tools.report.Outcome;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+
+/**
+ * Report of one file sent by a worker JVM to the coordinator. Contributions to corpus
+ * statistics stay in the worker and are not transferred.
+ */
+final class WorkerResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String text;
+	private final ArrayList<FileRecord> records;
+	private final String failure;
+	private final Outcome outcome;
+
+	WorkerResult(FileReport report) {
+		this.text = report.getText().toString();
+		this.records = new ArrayList<>(report.getRecords());
+		this.failure = report.getFailure();
+		this.outcome = report.getOutcome();
+	}
+
+	FileReport toFileReport() {
+		FileReport report = new FileReport();
+		report.getText().append(this.text);
+		for (FileRecord record : this.records) {
+			report.addRecord(record);
+		}
+		report.setFailure(this.failure);
+		report.setOutcome(this.outcome);
+		return report;
+	}
+}
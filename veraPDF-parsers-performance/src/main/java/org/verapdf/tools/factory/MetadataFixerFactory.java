@@ -1,5 +1,6 @@
 package org.verapdf.tools.factory;
 
+import org.verapdf.metadata.fixer.gf.GFMetadataFixerImpl;
 import org.verapdf.pdfa.MetadataFixer;
 import org.verapdf.tools.performance.ModelParserType;
 
@@ -9,14 +10,19 @@ import org.verapdf.tools.performance.ModelParserType;
 public class MetadataFixerFactory {
 
     public static MetadataFixer createGreenfieldMetadataFixer() {
-        // TODO: implement me
-        return null;
+        return new GFMetadataFixerImpl();
+    }
+
+    public static MetadataFixer createPdfBoxMetadataFixer() {
+        return ModelParserFactory.getPdfBoxFoundry().createMetadataFixer();
     }
 
     public static MetadataFixer createModelParser(ModelParserType type){
         switch (type) {
             case GREENFIELD:
                 return createGreenfieldMetadataFixer();
+            case PDFBOX:
+                return createPdfBoxMetadataFixer();
             default:
                 throw new IllegalArgumentException("Parser that corresponds to argument type is not supported");
         }
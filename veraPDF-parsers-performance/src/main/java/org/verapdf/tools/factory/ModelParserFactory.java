@@ -2,30 +2,162 @@ package org.verapdf.tools.factory;
 
 import org.verapdf.core.EncryptedPdfException;
 import org.verapdf.core.ModelParsingException;
+import org.verapdf.gf.model.GFModelParser;
 import org.verapdf.pdfa.PDFAParser;
+import org.verapdf.pdfa.VeraFoundryProvider;
+import org.verapdf.pdfa.VeraPDFFoundry;
 import org.verapdf.pdfa.flavours.PDFAFlavour;
 import org.verapdf.tools.performance.ModelParserType;
 
+import java.io.File;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Maksim Bezrukov
  */
 public class ModelParserFactory {
 
+    private static final String PDFBOX_FOUNDRY_PROVIDER = "org.verapdf.pdfbox.foundry.PdfBoxFoundryProvider";
+
     private ModelParserFactory() {
     }
 
+    /**
+     * @return parser types whose implementation is present on the classpath
+     */
+    public static Set<ModelParserType> getAvailableTypes() {
+        Set<ModelParserType> res = EnumSet.of(ModelParserType.GREENFIELD);
+        if (PdfBoxFoundryHolder.FOUNDRY != null) {
+            res.add(ModelParserType.PDFBOX);
+        }
+        return res;
+    }
+
+    /**
+     * PDFBox foundry is not released together with the current veraPDF library, so it is looked up
+     * reflectively and is only available when pdfbox-validation-model is added to the classpath.
+     * The provider is not registered in {@link org.verapdf.pdfa.Foundries}, so the default foundry stays unchanged.
+     */
+    static VeraPDFFoundry getPdfBoxFoundry() {
+        if (PdfBoxFoundryHolder.FOUNDRY == null) {
+            throw new IllegalStateException("PDFBox foundry is not available, add pdfbox-validation-model to the classpath");
+        }
+        return PdfBoxFoundryHolder.FOUNDRY;
+    }
+
+    public static PDFAParser createPdfBoxModelParser(InputStream toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
+        return getPdfBoxFoundry().createParser(toLoad, flavour);
+    }
+
+    public static PDFAParser createPdfBoxModelParser(File toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
+        return getPdfBoxFoundry().createParser(toLoad, flavour);
+    }
+
     public static PDFAParser createGreenfieldModelParser(InputStream toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
-        return org.verapdf.gf.model.GFModelParser.createModelWithFlavour(toLoad, flavour);
+        return GFModelParser.createModelWithFlavour(toLoad, flavour);
+    }
+
+    public static PDFAParser createGreenfieldModelParser(File toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
+        return GFModelParser.createModelWithFlavour(toLoad, flavour);
+    }
+
+    public static PDFAParser createModelParser(ModelParserType type, File toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
+        switch (type) {
+            case GREENFIELD:
+                return createGreenfieldModelParser(toLoad, flavour);
+            case PDFBOX:
+                return createPdfBoxModelParser(toLoad, flavour);
+            default:
+                throw new IllegalArgumentException("Parser that corresponds to argument type is not supported");
+        }
     }
 
     public static PDFAParser createModelParser(ModelParserType type, InputStream toLoad, PDFAFlavour flavour) throws ModelParsingException, EncryptedPdfException {
         switch (type) {
             case GREENFIELD:
                 return createGreenfieldModelParser(toLoad, flavour);
+            case PDFBOX:
+                return createPdfBoxModelParser(toLoad, flavour);
             default:
                 throw new IllegalArgumentException("Parser that corresponds to argument type is not supported");
         }
     }
+
+    /**
+     * @return number of pages of the document parsed by the parser of the given type
+     */
+    public static int getNumberOfPages(ModelParserType type, PDFAParser parser) {
+        switch (type) {
+            case GREENFIELD:
+                return ((GFModelParser) parser).getPDDocument().getNumberOfPages();
+            case PDFBOX:
+                return getPdfBoxNumberOfPages(parser);
+            default:
+                throw new IllegalArgumentException("Parser that corresponds to argument type is not supported");
+        }
+    }
+
+    /**
+     * @return the greatest object number declared in cross-reference data of the document. It is used
+     * as a cheap size measure instead of the number of objects, which would require loading all of them.
+     */
+    public static int getMaxObjectNumber(ModelParserType type, PDFAParser parser) {
+        switch (type) {
+            case GREENFIELD:
+                return ((GFModelParser) parser).getPDDocument().getDocument().getLastKeyNumber();
+            case PDFBOX:
+                return getPdfBoxMaxObjectNumber(parser);
+            default:
+                throw new IllegalArgumentException("Parser that corresponds to argument type is not supported");
+        }
+    }
+
+    private static int getPdfBoxMaxObjectNumber(PDFAParser parser) {
+        try {
+            Object document = parser.getClass().getMethod("getPDDocument").invoke(parser);
+            Object cosDocument = document.getClass().getMethod("getDocument").invoke(document);
+            Map<?, ?> xrefTable = (Map<?, ?>) cosDocument.getClass().getMethod("getXrefTable").invoke(cosDocument);
+            long res = 0;
+            Method getNumber = null;
+            for (Object key : xrefTable.keySet()) {
+                if (getNumber == null) {
+                    getNumber = key.getClass().getMethod("getNumber");
+                }
+                res = Math.max(res, ((Number) getNumber.invoke(key)).longValue());
+            }
+            return (int) res;
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not obtain max object number from PDFBox parser", e);
+        }
+    }
+
+    private static int getPdfBoxNumberOfPages(PDFAParser parser) {
+        try {
+            Object document = parser.getClass().getMethod("getPDDocument").invoke(parser);
+            return ((Integer) document.getClass().getMethod("getNumberOfPages").invoke(document)).intValue();
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Can not obtain number of pages from PDFBox parser", e);
+        }
+    }
+
+    private static final class PdfBoxFoundryHolder {
+        private static final VeraPDFFoundry FOUNDRY = loadPdfBoxFoundry();
+
+        private static VeraPDFFoundry loadPdfBoxFoundry() {
+            try {
+                Class<?> providerClass = Class.forName(PDFBOX_FOUNDRY_PROVIDER);
+                VeraFoundryProvider provider = (VeraFoundryProvider) providerClass.getDeclaredConstructor().newInstance();
+                return provider.getInstance();
+            } catch (ClassNotFoundException | LinkageError e) {
+                return null;
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can not instantiate PDFBox foundry provider", e);
+            }
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package org.verapdf.tools.performance;
+
+import org.verapdf.core.EncryptedPdfException;
+import org.verapdf.core.ModelParsingException;
+import org.verapdf.core.ValidationException;
+import org.verapdf.pdfa.PDFAParser;
+import org.verapdf.pdfa.PDFAValidator;
+import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.pdfa.results.ValidationResult;
+import org.verapdf.pdfa.validation.profiles.ValidationProfile;
+import org.verapdf.tools.factory.ModelParserFactory;
+import org.verapdf.tools.utils.Digests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Validates the same files with a growing number of concurrent threads in one JVM to show
+ * whether validation scales or is serialized by shared state. Every thread takes the next
+ * file from a shared counter, so faster threads process more files. Results of every file are
+ * compared between all threads and runs, so state shared by mistake shows up as a failure.
+ */
+public class ConcurrencyStressHarness {
+
+    private final List<File> files;
+    private final ValidationProfile profile;
+    private final PDFAFlavour flavour;
+    private final Set<ModelParserType> parserTypes;
+    private final int passes;
+    private final ConcurrentMap<String, String> resultDigests = new ConcurrentHashMap<>();
+
+    /**
+     * @param profile profile to validate with, or null to use the flavour
+     * @param passes number of times every file is validated in one run
+     */
+    public ConcurrencyStressHarness(List<File> files, ValidationProfile profile, PDFAFlavour flavour,
+                                    Set<ModelParserType> parserTypes, int passes) {
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("Stress run needs at least one file");
+        }
+        if (passes < 1) {
+            throw new IllegalArgumentException("Number of passes must be positive");
+        }
+        this.files = new ArrayList<>(files);
+        this.profile = profile;
+        this.flavour = flavour;
+        this.parserTypes = EnumSet.copyOf(parserTypes);
+        this.passes = passes;
+    }
+
+    public int getFileCount() {
+        return this.files.size();
+    }
+
+    public int getPasses() {
+        return this.passes;
+    }
+
+    /**
+     * Parses and validates every file {@link #getPasses()} times with the given number of threads.
+     * Every thread first validates one file untimed, so validators cached per thread are created
+     * before the measurement starts.
+     *
+     * @throws StressException if a file could not be parsed or validated, or its result differs
+     * from the one of another thread or run
+     */
+    public Result run(int threads) throws InterruptedException, StressException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be positive");
+        }
+        int total = this.files.size() * this.passes;
+        AtomicInteger next = new AtomicInteger();
+        Queue<StressException> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch warmedUp = new CountDownLatch(threads);
+        CountDownLatch started = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; ++i) {
+            int warmUpIndex = i % this.files.size();
+            Thread worker = new Thread(() -> {
+                try {
+                    validate(warmUpIndex, failures);
+                } finally {
+                    warmedUp.countDown();
+                }
+                try {
+                    started.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int index = next.getAndIncrement(); index < total && failures.isEmpty(); index = next.getAndIncrement()) {
+                    validate(index % this.files.size(), failures);
+                }
+            }, "stress-" + i);
+            worker.setUncaughtExceptionHandler((thread, e) -> failures.add(new StressException(thread.getName() + " has failed", e)));
+            workers.add(worker);
+            worker.start();
+        }
+        warmedUp.await();
+        long startTime = System.nanoTime();
+        started.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long nanos = System.nanoTime() - startTime;
+        StressException failure = failures.poll();
+        if (failure != null) {
+            for (StressException suppressed : failures) {
+                failure.addSuppressed(suppressed);
+            }
+            throw failure;
+        }
+        return new Result(threads, total, nanos);
+    }
+
+    /**
+     * Parses and validates the file directly, without {@link ParsersPerformanceChecker}, so the measured
+     * contention comes from parsers and validators only and not from timing and memory metering of this tool.
+     * Failures are added to the queue.
+     */
+    private void validate(int fileIndex, Queue<StressException> failures) {
+        File file = this.files.get(fileIndex);
+        PDFAFlavour parserFlavour = this.profile == null ? this.flavour : this.profile.getPDFAFlavour();
+        for (ModelParserType type : this.parserTypes) {
+            try (PDFAParser parser = ModelParserFactory.createModelParser(type, file, parserFlavour)) {
+                PDFAValidator validator = this.profile != null
+                        ? ValidatorCache.getValidator(this.profile, false, -1)
+                        : ValidatorCache.getValidator(parser.getFlavour(), false, -1);
+                ValidationResult result = validator.validate(parser);
+                String digest = result.isCompliant() + " " + Digests.ofAssertions(result.getTestAssertions());
+                String previous = this.resultDigests.putIfAbsent(fileIndex + " " + type, digest);
+                if (previous != null && !previous.equals(digest)) {
+                    failures.add(new StressException("Validation result of " + file.getAbsolutePath() + " by "
+                            + type.getDescription() + " differs between threads", null));
+                }
+            } catch (IOException | ModelParsingException | EncryptedPdfException | ValidationException | RuntimeException e) {
+                failures.add(new StressException("Can not validate " + file.getAbsolutePath() + " by "
+                        + type.getDescription(), e));
+            }
+        }
+    }
+
+    /**
+     * Failure of a stress run, its measurements are not valid.
+     */
+    public static class StressException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        StressException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    /**
+     * Outcome of one run with a fixed number of threads.
+     */
+    public static class Result {
+        private final int threads;
+        private final int files;
+        private final long nanos;
+
+        Result(int threads, int files, long nanos) {
+            this.threads = threads;
+            this.files = files;
+            this.nanos = nanos;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        /**
+         * @return number of processed files
+         */
+        public int getFiles() {
+            return files;
+        }
+
+        /**
+         * @return wall clock time of the whole run in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * @return processed files per second
+         */
+        public double getThroughput() {
+            return nanos == 0 ? 0 : files * 1_000_000_000.0 / nanos;
+        }
+    }
+}
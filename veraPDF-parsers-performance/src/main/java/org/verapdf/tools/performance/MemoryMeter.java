@@ -0,0 +1,88 @@
+package org.verapdf.tools.performance;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures memory consumption between {@link #start()} and {@link #stop()}. Allocated bytes are counted
+ * for the current thread, peak heap usage is reset and read for the whole JVM, so it is measured
+ * only while a single file is processed at a time, see {@link #disablePeakHeap()}.
+ */
+final class MemoryMeter {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = getHeapPools();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private static volatile boolean peakHeapMeasured = true;
+
+    private final long allocatedBytes;
+    private final long gcCount;
+    private final long gcTimeMillis;
+
+    private MemoryMeter() {
+        this.allocatedBytes = getCurrentThreadAllocatedBytes();
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean collector : COLLECTORS) {
+            count += Math.max(collector.getCollectionCount(), 0);
+            time += Math.max(collector.getCollectionTime(), 0);
+        }
+        this.gcCount = count;
+        this.gcTimeMillis = time;
+    }
+
+    /**
+     * Stops resetting and reading peak heap usage, phases of concurrently processed files
+     * would reset the peaks of each other.
+     */
+    static void disablePeakHeap() {
+        peakHeapMeasured = false;
+    }
+
+    static MemoryMeter start() {
+        if (peakHeapMeasured) {
+            for (MemoryPoolMXBean pool : HEAP_POOLS) {
+                pool.resetPeakUsage();
+            }
+        }
+        return new MemoryMeter();
+    }
+
+    PhaseMemory stop() {
+        MemoryMeter end = new MemoryMeter();
+        long peakHeap = peakHeapMeasured ? 0 : -1;
+        if (peakHeapMeasured) {
+            for (MemoryPoolMXBean pool : HEAP_POOLS) {
+                peakHeap += pool.getPeakUsage().getUsed();
+            }
+        }
+        long allocated = this.allocatedBytes < 0 || end.allocatedBytes < 0 ? -1 : end.allocatedBytes - this.allocatedBytes;
+        return new PhaseMemory(allocated, peakHeap, end.gcCount - this.gcCount, end.gcTimeMillis - this.gcTimeMillis);
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+            if (threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+                return threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static List<MemoryPoolMXBean> getHeapPools() {
+        List<MemoryPoolMXBean> res = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                res.add(pool);
+            }
+        }
+        return res;
+    }
+}
@@ -4,5 +4,16 @@ package org.verapdf.tools.performance;
  * @author Maksim Bezrukov
  */
 public enum ModelParserType {
-    GREENFIELD
+    GREENFIELD("Greenfield"),
+    PDFBOX("PDFBox");
+
+    private final String description;
+
+    ModelParserType(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
 }
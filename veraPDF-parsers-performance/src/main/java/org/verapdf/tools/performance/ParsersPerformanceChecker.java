@@ -7,36 +7,57 @@ import org.verapdf.features.FeatureExtractionResult;
 import org.verapdf.features.FeatureExtractorConfig;
 import org.verapdf.features.FeatureFactory;
 import org.verapdf.features.FeatureObjectType;
+import org.verapdf.pdfa.MetadataFixer;
 import org.verapdf.pdfa.PDFAParser;
 import org.verapdf.pdfa.PDFAValidator;
 import org.verapdf.pdfa.flavours.PDFAFlavour;
 import org.verapdf.pdfa.results.MetadataFixerResult;
 import org.verapdf.pdfa.results.TestAssertion;
 import org.verapdf.pdfa.results.ValidationResult;
+import org.verapdf.pdfa.validation.profiles.Profiles;
 import org.verapdf.pdfa.validation.profiles.ValidationProfile;
-import org.verapdf.pdfa.validation.validators.ValidatorFactory;
+import org.verapdf.tools.factory.MetadataFixerFactory;
 import org.verapdf.tools.factory.ModelParserFactory;
-import org.verapdf.tools.utils.TestAssertionContextFreeComparator;
+import org.verapdf.tools.utils.CountingOutputStream;
+import org.verapdf.tools.utils.TestAssertionMultiset;
 
 import java.io.*;
 import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Maksim Bezrukov
  */
-public class ParsersPerformanceChecker {
+public class ParsersPerformanceChecker implements Closeable {
 
-    private static FeatureExtractorConfig featuresConfig = FeatureFactory.configFromValues(EnumSet.allOf(FeatureObjectType.class));
+    private static final int SPOOLING_BUFFER_SIZE = 256 * 1024;
+    private static final ThreadLocal<byte[]> SPOOLING_BUFFER = ThreadLocal.withInitial(() -> new byte[SPOOLING_BUFFER_SIZE]);
+    private static final FeatureExtractorConfig ALL_FEATURES_CONFIG = FeatureFactory.configFromValues(EnumSet.allOf(FeatureObjectType.class));
+    private static final Map<FeatureObjectType, FeatureExtractorConfig> SINGLE_FEATURE_CONFIGS = createSingleFeatureConfigs();
 
     private Map<ModelParserType, ModelParserResults> parsers = new EnumMap<ModelParserType, ModelParserResults>(ModelParserType.class);
     private ValidationProfile profile = null;
     private boolean logPassed = true;
     private int maxFail = -1;
+    private File temp = null;
+    private boolean ruleProfiling = false;
+    private Set<FeatureObjectType> featureTypes = EnumSet.allOf(FeatureObjectType.class);
+    private FeatureExtractorConfig featuresConfig = ALL_FEATURES_CONFIG;
+    private boolean featureTypeTiming = false;
+    private List<ValidationProfile> additionalProfiles = Collections.emptyList();
 
     private ParsersPerformanceChecker(){
     }
 
+    /**
+     * Disables measurement of peak heap usage of the phases, it is JVM-wide and is attributable to a phase
+     * only when files are processed one at a time. Must be called before files are processed concurrently.
+     */
+    public static void disablePeakHeapMeasurement() {
+        MemoryMeter.disablePeakHeap();
+    }
+
     public static ParsersPerformanceChecker createCheckerWithProfile(InputStream toLoad, ValidationProfile profile, boolean logPassed, int maxFail) throws IOException, ModelParsingException, EncryptedPdfException {
         return createCheckerWithProfileAndFlavour(toLoad, profile, PDFAFlavour.NO_FLAVOUR, logPassed, maxFail);
     }
@@ -45,6 +66,36 @@ public class ParsersPerformanceChecker {
         return createCheckerWithProfileAndFlavour(toLoad, null, flavour, logPassed, maxFail);
     }
 
+    /**
+     * Creates checker that parses the file in place, without copying it.
+     */
+    public static ParsersPerformanceChecker createCheckerWithProfile(File toLoad, ValidationProfile profile, boolean logPassed, int maxFail) throws IOException, ModelParsingException, EncryptedPdfException {
+        return createCheckerWithProfileAndFlavour(toLoad, profile, PDFAFlavour.NO_FLAVOUR, logPassed, maxFail);
+    }
+
+    /**
+     * Creates checker that parses the file in place, without copying it.
+     */
+    public static ParsersPerformanceChecker createCheckerWithFlavour(File toLoad, PDFAFlavour flavour, boolean logPassed, int maxFail) throws IOException, ModelParsingException, EncryptedPdfException {
+        return createCheckerWithProfileAndFlavour(toLoad, null, flavour, logPassed, maxFail);
+    }
+
+    /**
+     * Creates checker that parses the file in place with parsers of the given types only.
+     */
+    public static ParsersPerformanceChecker createCheckerWithProfile(File toLoad, ValidationProfile profile, boolean logPassed, int maxFail,
+                                                                     Set<ModelParserType> parserTypes) throws IOException, ModelParsingException, EncryptedPdfException {
+        return createCheckerWithProfileAndFlavour(toLoad, profile, PDFAFlavour.NO_FLAVOUR, logPassed, maxFail, parserTypes);
+    }
+
+    /**
+     * Creates checker that parses the file in place with parsers of the given types only.
+     */
+    public static ParsersPerformanceChecker createCheckerWithFlavour(File toLoad, PDFAFlavour flavour, boolean logPassed, int maxFail,
+                                                                     Set<ModelParserType> parserTypes) throws IOException, ModelParsingException, EncryptedPdfException {
+        return createCheckerWithProfileAndFlavour(toLoad, null, flavour, logPassed, maxFail, parserTypes);
+    }
+
     private static ParsersPerformanceChecker createCheckerWithProfileAndFlavour(InputStream toLoad,
                                                                                 ValidationProfile profile,
                                                                                 PDFAFlavour flavour,
@@ -54,6 +105,46 @@ public class ParsersPerformanceChecker {
         if (toLoad == null) {
             throw new IllegalArgumentException("Can not create Parsers Performance Checker without input stream of a file");
         }
+        long startTime = System.nanoTime();
+        File temp = generateTempFile(toLoad);
+        long spoolingTime = System.nanoTime() - startTime;
+        ParsersPerformanceChecker checker;
+        try {
+            checker = createCheckerWithProfileAndFlavour(temp, profile, flavour, logPassed, maxFail);
+        } catch (IOException | ModelParsingException | EncryptedPdfException | RuntimeException e) {
+            Files.deleteIfExists(temp.toPath());
+            throw e;
+        }
+        checker.temp = temp;
+        for (ModelParserResults modelParserResults : checker.parsers.values()) {
+            modelParserResults.getTimings().record(Phase.SPOOLING, spoolingTime);
+        }
+        return checker;
+    }
+
+    private static ParsersPerformanceChecker createCheckerWithProfileAndFlavour(File toLoad,
+                                                                                ValidationProfile profile,
+                                                                                PDFAFlavour flavour,
+                                                                                boolean logPassed,
+                                                                                int maxFail)
+            throws IOException, ModelParsingException, EncryptedPdfException {
+        return createCheckerWithProfileAndFlavour(toLoad, profile, flavour, logPassed, maxFail,
+                ModelParserFactory.getAvailableTypes());
+    }
+
+    private static ParsersPerformanceChecker createCheckerWithProfileAndFlavour(File toLoad,
+                                                                                ValidationProfile profile,
+                                                                                PDFAFlavour flavour,
+                                                                                boolean logPassed,
+                                                                                int maxFail,
+                                                                                Set<ModelParserType> parserTypes)
+            throws IOException, ModelParsingException, EncryptedPdfException {
+        if (parserTypes == null || parserTypes.isEmpty()) {
+            throw new IllegalArgumentException("Can not create Parsers Performance Checker without parser types");
+        }
+        if (toLoad == null) {
+            throw new IllegalArgumentException("Can not create Parsers Performance Checker without a file");
+        }
         if (profile == null && flavour == null) {
             throw new IllegalArgumentException("Cannot create Parsers Performance Checker without both validation profile and flavour");
         }
@@ -61,30 +152,138 @@ public class ParsersPerformanceChecker {
         checker.profile = profile;
         checker.logPassed = logPassed;
         checker.maxFail = maxFail;
-        File temp = generateTempFile(toLoad);
-        temp.deleteOnExit();
         PDFAFlavour pdfaFlavour = checker.profile == null ? flavour : checker.profile.getPDFAFlavour();
-        for (ModelParserType type : ModelParserType.values()) {
-            InputStream is = new FileInputStream(temp);
-            PDFAParser parser = ModelParserFactory.createModelParser(type, is, pdfaFlavour);
-            ModelParserResults modelParserResults = new ModelParserResults(parser, temp);
-            checker.parsers.put(type, modelParserResults);
+        try {
+            for (ModelParserType type : parserTypes) {
+                MemoryMeter memoryMeter = MemoryMeter.start();
+                long startTime = System.nanoTime();
+                PDFAParser parser = ModelParserFactory.createModelParser(type, toLoad, pdfaFlavour);
+                long endTime = System.nanoTime();
+                PhaseMemory parserMemory = memoryMeter.stop();
+                ModelParserResults modelParserResults = new ModelParserResults(parser, toLoad);
+                modelParserResults.getMemoryUsage().record(Phase.PARSER_CREATION, parserMemory);
+                modelParserResults.getTimings().record(Phase.PARSER_CREATION, endTime - startTime);
+                checker.parsers.put(type, modelParserResults);
+            }
+        } catch (ModelParsingException | EncryptedPdfException | RuntimeException e) {
+            checker.close();
+            throw e;
         }
         return checker;
     }
 
-    private static File generateTempFile(InputStream toLoad) throws IOException {
-        File res = Files.createTempFile("performance", "").toFile();
-        OutputStream outStream = new FileOutputStream(res);
+    private static Map<FeatureObjectType, FeatureExtractorConfig> createSingleFeatureConfigs() {
+        Map<FeatureObjectType, FeatureExtractorConfig> res = new EnumMap<>(FeatureObjectType.class);
+        for (FeatureObjectType type : FeatureObjectType.values()) {
+            res.put(type, FeatureFactory.configFromValues(EnumSet.of(type)));
+        }
+        return res;
+    }
 
-        byte[] buffer = new byte[1024];
-        int bytesRead;
-        while ((bytesRead = toLoad.read(buffer)) != -1) {
-            outStream.write(buffer, 0, bytesRead);
+    /**
+     * Copies a non-seekable stream into a temp file with a per-thread reused buffer.
+     */
+    private static File generateTempFile(InputStream toLoad) throws IOException {
+        File res = Files.createTempFile("performance", ".pdf").toFile();
+        byte[] buffer = SPOOLING_BUFFER.get();
+        try (OutputStream outStream = new FileOutputStream(res)) {
+            int bytesRead;
+            while ((bytesRead = toLoad.read(buffer)) != -1) {
+                outStream.write(buffer, 0, bytesRead);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(res.toPath());
+            throw e;
         }
         return res;
     }
 
+    /**
+     * Closes all parsers and removes the temp file created for stream input.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (ModelParserResults modelParserResults : this.parsers.values()) {
+            try {
+                modelParserResults.getParser().close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+        if (this.temp != null) {
+            Files.deleteIfExists(this.temp.toPath());
+            this.temp = null;
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Restricts features extraction to the given feature types.
+     * Must be called before features are extracted.
+     */
+    public void setFeatureTypes(Set<FeatureObjectType> featureTypes) {
+        if (featureTypes == null || featureTypes.isEmpty()) {
+            throw new IllegalArgumentException("Feature types can't be empty");
+        }
+        this.featureTypes = EnumSet.copyOf(featureTypes);
+        this.featuresConfig = FeatureFactory.configFromValues(EnumSet.copyOf(featureTypes));
+    }
+
+    /**
+     * Additionally extracts every feature type separately after the normal extraction, so the time of each one
+     * is measured, see {@link #getFeatureTypeTimings(ModelParserType)}. The result and the timing of the features
+     * extraction phase remain those of the normal extraction. Must be called before features are extracted.
+     */
+    public void enableFeatureTypeTiming() {
+        this.featureTypeTiming = true;
+    }
+
+    /**
+     * @return time in nanoseconds spent on every extracted feature type, empty if the timing is not enabled
+     */
+    public Map<FeatureObjectType, Long> getFeatureTypeTimings(ModelParserType type) {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getFeaturesCollection() == null) {
+            collectFeatures(type);
+        }
+
+        return Collections.unmodifiableMap(modelParserResults.getFeatureTypeTimings());
+    }
+
+    /**
+     * @return types of parsers the document has been parsed with
+     */
+    public Set<ModelParserType> getParserTypes() {
+        return Collections.unmodifiableSet(this.parsers.keySet());
+    }
+
+    /**
+     * Enables measurement of every rule evaluation during validation, see {@link ProfilingValidator}.
+     * Must be called before validation is performed.
+     */
+    public void enableRuleProfiling() {
+        this.ruleProfiling = true;
+    }
+
+    /**
+     * @return true if validation is performed by {@link ProfilingValidator}, its time then includes
+     * measurement of every rule evaluation and is not comparable with uninstrumented validation
+     */
+    public boolean isValidationInstrumented() {
+        return this.ruleProfiling || !this.additionalProfiles.isEmpty();
+    }
+
+    /**
+     * Validates the given profiles in the same walk of the parsed document as the main profile,
+     * see {@link #getProfileValidations(ModelParserType)}. Must be called before validation is performed.
+     */
+    public void setAdditionalProfiles(List<ValidationProfile> profiles) {
+        this.additionalProfiles = new ArrayList<>(profiles);
+    }
+
     public boolean doesValidationResultsEquals() throws ValidationException, ModelParsingException {
         boolean res = true;
         boolean isFirstNotNull = true;
@@ -120,45 +319,51 @@ public class ParsersPerformanceChecker {
     }
 
     private static boolean testAssertionsEquals(List<TestAssertion> first, List<TestAssertion> second) {
-        if (first.size() != second.size()) {
-            return false;
-        }
-        TestAssertionContextFreeComparator comparator = new TestAssertionContextFreeComparator();
-        List<TestAssertion> firstList = new ArrayList<>(first);
-        Collections.sort(firstList, comparator);
-        List<TestAssertion> secondList = new ArrayList<>(second);
-        Collections.sort(secondList, comparator);
-        int size = first.size();
-        for (int i = 0; i < size; ++i) {
-            if (comparator.compare(firstList.get(i), secondList.get(i)) != 0) {
-                return false;
+        return TestAssertionMultiset.equals(first, second);
+    }
+
+    /**
+     * @return the first assertion whose number of occurrences differs between validation results
+     * of the given parsers, or null if assertions are equal
+     */
+    public TestAssertionMultiset.Difference getFirstAssertionDifference(ModelParserType first, ModelParserType second)
+            throws ValidationException, ModelParsingException {
+        return TestAssertionMultiset.findFirstDifference(getValidationResult(first).getTestAssertions(),
+                getValidationResult(second).getTestAssertions());
+    }
+
+    public boolean doesMetadataFixerResultsEquals() throws ModelParsingException, ValidationException {
+        boolean res = true;
+        boolean isFirstNotNull = true;
+        MetadataFixerResult metadataFixerResult = null;
+
+        for (Map.Entry<ModelParserType, ModelParserResults> entry : this.parsers.entrySet()) {
+            if (entry.getValue().getMetadataFixerResult() == null) {
+                fixMetadata(entry.getKey());
+            }
+
+            if (metadataFixerResult == null) {
+                metadataFixerResult = entry.getValue().getMetadataFixerResult();
+                if (metadataFixerResult == null) {
+                    isFirstNotNull = false;
+                }
+            } else {
+                res &= metadataFixerResultsEquals(metadataFixerResult, entry.getValue().getMetadataFixerResult());
             }
         }
-        return true;
-    }
-
-//    public boolean doesMetadataFixerResultsEquals() throws ModelParsingException, IOException, ValidationException {
-//        boolean res = true;
-//        boolean isFirstNotNull = true;
-//        MetadataFixerResult metadataFixerResult = null;
-//
-//        for (Map.Entry<ModelParserType, ModelParserResults> entry : this.parsers.entrySet()) {
-//            if (entry.getValue().getMetadataFixerResult() == null) {
-//                fixMetadata(entry.getKey());
-//            }
-//
-//            if (metadataFixerResult == null) {
-//                metadataFixerResult = entry.getValue().getMetadataFixerResult();
-//                if (metadataFixerResult == null) {
-//                    isFirstNotNull = false;
-//                }
-//            } else {
-//                res &= metadataFixerResult.equals(entry.getValue().getMetadataFixerResult());
-//            }
-//        }
-//
-//        return res && (metadataFixerResult == null || isFirstNotNull);
-//    }
+
+        return res && (metadataFixerResult == null || isFirstNotNull);
+    }
+
+    private static boolean metadataFixerResultsEquals(MetadataFixerResult first, MetadataFixerResult second) {
+        if (first == null) {
+            return second == null;
+        } else {
+            return second != null
+                    && first.getRepairStatus() == second.getRepairStatus()
+                    && first.getAppliedFixes().equals(second.getAppliedFixes());
+        }
+    }
 
     public boolean doesFeaturesCollectionsEquals() {
         boolean res = true;
@@ -189,17 +394,29 @@ public class ParsersPerformanceChecker {
             validate(type);
         }
 
-        return modelParserResults.getValidationTime();
+        return TimeUnit.NANOSECONDS.toMillis(modelParserResults.getValidationTime());
     }
 
-//    public long getTimeOfMetadataFixing(ModelParserType type) throws ModelParsingException, IOException, ValidationException {
-//        ModelParserResults modelParserResults = parsers.get(type);
-//        if (modelParserResults.getMetadataFixerResult() == null) {
-//            fixMetadata(type);
-//        }
-//
-//        return modelParserResults.getMetadataFixerTime();
-//    }
+    public long getTimeOfMetadataFixing(ModelParserType type) throws ModelParsingException, ValidationException {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getMetadataFixerResult() == null) {
+            fixMetadata(type);
+        }
+
+        return TimeUnit.NANOSECONDS.toMillis(modelParserResults.getMetadataFixerTime());
+    }
+
+    /**
+     * @return size in bytes of the document written by the metadata fixer
+     */
+    public long getMetadataFixerOutputSize(ModelParserType type) throws ModelParsingException, ValidationException {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getMetadataFixerResult() == null) {
+            fixMetadata(type);
+        }
+
+        return modelParserResults.getMetadataFixerOutputSize();
+    }
 
     public long getTimeOfFeaturesCollecting(ModelParserType type) {
         ModelParserResults modelParserResults = parsers.get(type);
@@ -207,7 +424,64 @@ public class ParsersPerformanceChecker {
             collectFeatures(type);
         }
 
-        return modelParserResults.getFeaturesCollectionTime();
+        return TimeUnit.NANOSECONDS.toMillis(modelParserResults.getFeaturesCollectionTime());
+    }
+
+    /**
+     * Returns memory consumption of parser creation, validation and features extraction,
+     * the latter two appear after the corresponding getter has been called.
+     */
+    public PhaseMemoryUsage getPhaseMemoryUsage(ModelParserType type) {
+        return parsers.get(type).getMemoryUsage();
+    }
+
+    /**
+     * @return costs of the rule evaluations, or null if rule profiling has not been enabled
+     */
+    public RuleProfile getRuleProfile(ModelParserType type) throws ValidationException, ModelParsingException {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getValidationResult() == null) {
+            validate(type);
+        }
+
+        return modelParserResults.getRuleProfile();
+    }
+
+    /**
+     * @return results and rule evaluation costs of the main and all additional profiles,
+     * empty if no additional profiles have been set
+     */
+    public List<ProfileValidation> getProfileValidations(ModelParserType type) throws ValidationException, ModelParsingException {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getValidationResult() == null) {
+            validate(type);
+        }
+
+        return Collections.unmodifiableList(modelParserResults.getProfileValidations());
+    }
+
+    public int getNumberOfPages(ModelParserType type) {
+        return ModelParserFactory.getNumberOfPages(type, parsers.get(type).getParser());
+    }
+
+    /**
+     * @return the greatest object number of the document, see {@link ModelParserFactory#getMaxObjectNumber}
+     */
+    public int getMaxObjectNumber(ModelParserType type) {
+        return ModelParserFactory.getMaxObjectNumber(type, parsers.get(type).getParser());
+    }
+
+    public PDFAFlavour getParserFlavour(ModelParserType type) {
+        return parsers.get(type).getParser().getFlavour();
+    }
+
+    /**
+     * Returns timings of the phases processed so far for the given parser. Parser creation
+     * and temp file spooling are always present, other phases appear after the corresponding
+     * getter has been called.
+     */
+    public PhaseTimings getPhaseTimings(ModelParserType type) {
+        return parsers.get(type).getTimings();
     }
 
     public ValidationResult getValidationResult(ModelParserType type) throws ValidationException, ModelParsingException {
@@ -219,14 +493,14 @@ public class ParsersPerformanceChecker {
         return modelParserResults.getValidationResult();
     }
 
-//    public MetadataFixerResult getMetadataFixerResult(ModelParserType type) throws ModelParsingException, IOException, ValidationException {
-//        ModelParserResults modelParserResults = parsers.get(type);
-//        if (modelParserResults.getMetadataFixerResult() == null) {
-//            fixMetadata(type);
-//        }
-//
-//        return modelParserResults.getMetadataFixerResult();
-//    }
+    public MetadataFixerResult getMetadataFixerResult(ModelParserType type) throws ModelParsingException, ValidationException {
+        ModelParserResults modelParserResults = parsers.get(type);
+        if (modelParserResults.getMetadataFixerResult() == null) {
+            fixMetadata(type);
+        }
+
+        return modelParserResults.getMetadataFixerResult();
+    }
 
     public FeatureExtractionResult getFeaturesCollection(ModelParserType type) {
         ModelParserResults modelParserResults = parsers.get(type);
@@ -240,69 +514,174 @@ public class ParsersPerformanceChecker {
     private void validate(ModelParserType type) throws ValidationException, ModelParsingException {
         ModelParserResults res = this.parsers.get(type);
         PDFAParser parser = res.getParser();
-        PDFAValidator validator = this.profile != null ?
-                ValidatorFactory.createValidator(this.profile, this.logPassed, this.maxFail)
-                : ValidatorFactory.createValidator(parser.getFlavour(), this.logPassed, this.maxFail);
-        long startTime = System.currentTimeMillis();
-        ValidationResult result = validator.validate(parser);
-        long endTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        PDFAValidator validator;
+        List<ValidationProfile> profiles = null;
+        if (!this.additionalProfiles.isEmpty()) {
+            profiles = new ArrayList<>(this.additionalProfiles.size() + 1);
+            profiles.add(getMainProfile(parser));
+            profiles.addAll(this.additionalProfiles);
+            validator = new ProfilingValidator(profiles, this.logPassed);
+        } else if (this.ruleProfiling) {
+            validator = new ProfilingValidator(getMainProfile(parser), this.logPassed);
+        } else {
+            validator = this.profile != null ?
+                    ValidatorCache.getValidator(this.profile, this.logPassed, this.maxFail)
+                    : ValidatorCache.getValidator(parser.getFlavour(), this.logPassed, this.maxFail);
+        }
+        long endTime = System.nanoTime();
+        res.getTimings().record(Phase.PROFILE_LOADING, endTime - startTime);
+        MemoryMeter memoryMeter = MemoryMeter.start();
+        startTime = System.nanoTime();
+        ValidationResult result;
+        List<ValidationResult> results = null;
+        if (profiles == null) {
+            result = validator.validate(parser);
+        } else {
+            results = validator.validateAll(parser);
+            result = findResult(results, profiles.get(0));
+        }
+        endTime = System.nanoTime();
+        res.getMemoryUsage().record(Phase.VALIDATION, memoryMeter.stop());
         res.setValidationResult(result, endTime - startTime);
+        if (validator instanceof ProfilingValidator) {
+            ProfilingValidator profilingValidator = (ProfilingValidator) validator;
+            if (this.ruleProfiling) {
+                res.setRuleProfile(profilingValidator.getRuleProfile());
+            }
+            if (profiles != null) {
+                List<ProfileValidation> profileValidations = new ArrayList<>(profiles.size());
+                for (int i = 0; i < profiles.size(); ++i) {
+                    profileValidations.add(new ProfileValidation(profiles.get(i), findResult(results, profiles.get(i)),
+                            profilingValidator.getRuleNanos(profiles.get(i))));
+                }
+                res.setProfileValidations(profileValidations);
+            }
+        }
     }
 
-//    private void fixMetadata(ModelParserType type) throws IOException, ValidationException, ModelParsingException {
-//        ModelParserResults res = this.parsers.get(type);
-//        if (res.getValidationResult() == null) {
-//            validate(type);
-//        }
-//
-//        InputStream is = new FileInputStream(res.getTemp());
-//        File tempOut = File.createTempFile("tempOut", "");
-//        tempOut.deleteOnExit();
-//        FileOutputStream os = new FileOutputStream(tempOut);
-//
-//        MetadataFixer fixer = MetadataFixerFactory.createModelParser(type);
-//        long startTime = System.currentTimeMillis();
-//        MetadataFixerResult fixerResult = fixer.fixMetadata(is, os, res.getValidationResult());
-//        long endTime = System.currentTimeMillis();
-//        res.setMetadataFixerResult(fixerResult, endTime - startTime);
-//    }
+    /**
+     * @return result of the profile, or null if the validator has skipped the profile
+     * as incompatible with the other ones
+     */
+    private static ValidationResult findResult(List<ValidationResult> results, ValidationProfile profile) {
+        for (ValidationResult result : results) {
+            if (result.getValidationProfile() == profile) {
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private ValidationProfile getMainProfile(PDFAParser parser) {
+        return this.profile != null ? this.profile
+                : Profiles.getVeraProfileDirectory().getValidationProfileByFlavour(parser.getFlavour());
+    }
+
+    /**
+     * Fixes metadata of the already parsed document. The fixed document is written to a discarding sink,
+     * only its size is kept. Fixing changes the parsed document, so it should be requested after
+     * features extraction.
+     */
+    private void fixMetadata(ModelParserType type) throws ValidationException, ModelParsingException {
+        ModelParserResults res = this.parsers.get(type);
+        if (res.getValidationResult() == null) {
+            validate(type);
+        }
+
+        MetadataFixer fixer = MetadataFixerFactory.createModelParser(type);
+        CountingOutputStream os = new CountingOutputStream();
+        MemoryMeter memoryMeter = MemoryMeter.start();
+        long startTime = System.nanoTime();
+        MetadataFixerResult fixerResult = fixer.fixMetadata(res.getParser(), os, res.getValidationResult());
+        long endTime = System.nanoTime();
+        res.getMemoryUsage().record(Phase.METADATA_FIXING, memoryMeter.stop());
+        res.setMetadataFixerResult(fixerResult, endTime - startTime, os.getCount());
+    }
 
     private void collectFeatures(ModelParserType type) {
         ModelParserResults res = this.parsers.get(type);
         PDFAParser parser = res.getParser();
-        long startTime = System.currentTimeMillis();
-        FeatureExtractionResult result = parser.getFeatures(featuresConfig);
-        long endTime = System.currentTimeMillis();
+        MemoryMeter memoryMeter = MemoryMeter.start();
+        long startTime = System.nanoTime();
+        FeatureExtractionResult result = parser.getFeatures(this.featuresConfig);
+        long endTime = System.nanoTime();
+        res.getMemoryUsage().record(Phase.FEATURES_EXTRACTION, memoryMeter.stop());
         res.setFeaturesCollection(result, endTime - startTime);
+        if (this.featureTypeTiming) {
+            timeFeatureTypes(res);
+        }
+    }
+
+    /**
+     * Extracts every feature type on its own to measure its time. The results are discarded,
+     * ERROR is not a feature family of its own and is not timed.
+     */
+    private void timeFeatureTypes(ModelParserResults res) {
+        for (FeatureObjectType featureType : this.featureTypes) {
+            if (featureType == FeatureObjectType.ERROR) {
+                continue;
+            }
+            long startTime = System.nanoTime();
+            res.getParser().getFeatures(SINGLE_FEATURE_CONFIGS.get(featureType));
+            res.getFeatureTypeTimings().put(featureType, Long.valueOf(System.nanoTime() - startTime));
+        }
     }
 
     private static class ModelParserResults {
         private PDFAParser parser;
-        private File temp;
+        private File source;
+        private final PhaseTimings timings = new PhaseTimings();
+        private final PhaseMemoryUsage memoryUsage = new PhaseMemoryUsage();
         private ValidationResult validationResult = null;
-        private long validationTime = 0;
         private MetadataFixerResult metadataFixerResult = null;
-        private long metadataFixerTime = 0;
+        private long metadataFixerOutputSize = 0;
         private FeatureExtractionResult featuresCollection = null;
-        private long featuresCollectionTime = 0;
+        private final Map<FeatureObjectType, Long> featureTypeTimings = new EnumMap<>(FeatureObjectType.class);
+        private RuleProfile ruleProfile = null;
+        private List<ProfileValidation> profileValidations = Collections.emptyList();
 
-        public ModelParserResults(PDFAParser parser, File temp) {
+        public ModelParserResults(PDFAParser parser, File source) {
             if (parser == null) {
                 throw new IllegalArgumentException("ModelParser can't be null");
             }
-            if (temp == null) {
+            if (source == null) {
                 throw new IllegalArgumentException("File can't be null");
             }
             this.parser = parser;
-            this.temp = temp;
+            this.source = source;
         }
 
         public PDFAParser getParser() {
             return parser;
         }
 
-        public File getTemp() {
-            return temp;
+        public File getSource() {
+            return source;
+        }
+
+        public PhaseTimings getTimings() {
+            return timings;
+        }
+
+        public PhaseMemoryUsage getMemoryUsage() {
+            return memoryUsage;
+        }
+
+        public RuleProfile getRuleProfile() {
+            return ruleProfile;
+        }
+
+        public void setRuleProfile(RuleProfile ruleProfile) {
+            this.ruleProfile = ruleProfile;
+        }
+
+        public List<ProfileValidation> getProfileValidations() {
+            return profileValidations;
+        }
+
+        public void setProfileValidations(List<ProfileValidation> profileValidations) {
+            this.profileValidations = profileValidations;
         }
 
         public ValidationResult getValidationResult() {
@@ -310,7 +689,7 @@ public class ParsersPerformanceChecker {
         }
 
         public long getValidationTime() {
-            return validationTime;
+            return timings.getNanos(Phase.VALIDATION);
         }
 
         public MetadataFixerResult getMetadataFixerResult() {
@@ -318,30 +697,40 @@ public class ParsersPerformanceChecker {
         }
 
         public long getMetadataFixerTime() {
-            return metadataFixerTime;
+            return timings.getNanos(Phase.METADATA_FIXING);
+        }
+
+        public long getMetadataFixerOutputSize() {
+            return metadataFixerOutputSize;
         }
 
         public FeatureExtractionResult getFeaturesCollection() {
             return featuresCollection;
         }
 
+        public Map<FeatureObjectType, Long> getFeatureTypeTimings() {
+            return featureTypeTimings;
+        }
+
         public long getFeaturesCollectionTime() {
-            return featuresCollectionTime;
+            return timings.getNanos(Phase.FEATURES_EXTRACTION);
         }
 
         public void setValidationResult(ValidationResult validationResult, long validationTime) {
             this.validationResult = validationResult;
-            this.validationTime = validationTime;
+            this.timings.record(Phase.VALIDATION, validationTime);
         }
 
-        public void setMetadataFixerResult(MetadataFixerResult metadataFixerResult, long metadataFixerTime) {
+        public void setMetadataFixerResult(MetadataFixerResult metadataFixerResult, long metadataFixerTime,
+                                           long metadataFixerOutputSize) {
             this.metadataFixerResult = metadataFixerResult;
-            this.metadataFixerTime = metadataFixerTime;
+            this.metadataFixerOutputSize = metadataFixerOutputSize;
+            this.timings.record(Phase.METADATA_FIXING, metadataFixerTime);
         }
 
         public void setFeaturesCollection(FeatureExtractionResult featuresCollection, long featuresCollectionTime) {
             this.featuresCollection = featuresCollection;
-            this.featuresCollectionTime = featuresCollectionTime;
+            this.timings.record(Phase.FEATURES_EXTRACTION, featuresCollectionTime);
         }
     }
 }
@@ -0,0 +1,23 @@
+package org.verapdf.tools.performance;
+
+/**
+ * Processing phases measured by {@link ParsersPerformanceChecker}.
+ */
+public enum Phase {
+    SPOOLING("Temp file spooling"),
+    PARSER_CREATION("Parser creation"),
+    PROFILE_LOADING("Profile loading"),
+    VALIDATION("Validation"),
+    FEATURES_EXTRACTION("Features extraction"),
+    METADATA_FIXING("Metadata fixing");
+
+    private final String description;
+
+    Phase(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,50 @@
+package org.verapdf.tools.performance;
+
+import java.io.Serializable;
+
+/**
+ * Memory consumed while a single phase was running.
+ * Allocated bytes are counted for the processing thread only. Peak heap and garbage
+ * collections are JVM-wide, so they are attributable to the phase only when files
+ * are processed one at a time.
+ */
+public class PhaseMemory implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long allocatedBytes;
+    private final long peakHeapBytes;
+    private final long gcCount;
+    private final long gcTimeMillis;
+
+    PhaseMemory(long allocatedBytes, long peakHeapBytes, long gcCount, long gcTimeMillis) {
+        this.allocatedBytes = allocatedBytes;
+        this.peakHeapBytes = peakHeapBytes;
+        this.gcCount = gcCount;
+        this.gcTimeMillis = gcTimeMillis;
+    }
+
+    /**
+     * @return bytes allocated by the processing thread, or -1 if the JVM does not support measuring it
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return sum of the peak usages of all heap memory pools, the pools peak at different moments,
+     * so it is an upper bound of the peak heap usage. -1 if it is not measured because several files
+     * are processed at a time
+     */
+    public long getPeakHeapBytes() {
+        return peakHeapBytes;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcTimeMillis() {
+        return gcTimeMillis;
+    }
+}
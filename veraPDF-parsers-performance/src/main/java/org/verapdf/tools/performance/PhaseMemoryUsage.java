@@ -0,0 +1,39 @@
+package org.verapdf.tools.performance;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Memory consumption of the phases processed for one parser.
+ * Phases that have not been run, or are not measured, are absent.
+ */
+public class PhaseMemoryUsage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Phase, PhaseMemory> memory = new EnumMap<>(Phase.class);
+
+    void record(Phase phase, PhaseMemory phaseMemory) {
+        this.memory.put(phase, phaseMemory);
+    }
+
+    public boolean isMeasured(Phase phase) {
+        return this.memory.containsKey(phase);
+    }
+
+    /**
+     * @return memory consumption of the phase, or null if it has not been measured
+     */
+    public PhaseMemory get(Phase phase) {
+        return this.memory.get(phase);
+    }
+
+    /**
+     * @return unmodifiable view of the measured phases in {@link Phase} order
+     */
+    public Map<Phase, PhaseMemory> asMap() {
+        return Collections.unmodifiableMap(this.memory);
+    }
+}
@@ -0,0 +1,56 @@
+package org.verapdf.tools.performance;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock durations, in nanoseconds, of the phases processed for one parser.
+ * Phases that have not been run yet are absent.
+ */
+public class PhaseTimings implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Map<Phase, Long> nanos = new EnumMap<>(Phase.class);
+
+    void record(Phase phase, long durationNanos) {
+        this.nanos.put(phase, Long.valueOf(durationNanos));
+    }
+
+    public boolean isMeasured(Phase phase) {
+        return this.nanos.containsKey(phase);
+    }
+
+    /**
+     * @return duration of the phase in nanoseconds, or 0 if the phase has not been run
+     */
+    public long getNanos(Phase phase) {
+        Long res = this.nanos.get(phase);
+        return res == null ? 0 : res.longValue();
+    }
+
+    public long getMillis(Phase phase) {
+        return TimeUnit.NANOSECONDS.toMillis(getNanos(phase));
+    }
+
+    /**
+     * @return sum of all measured phases in nanoseconds
+     */
+    public long getTotalNanos() {
+        long res = 0;
+        for (Long value : this.nanos.values()) {
+            res += value.longValue();
+        }
+        return res;
+    }
+
+    /**
+     * @return unmodifiable view of the measured phases in {@link Phase} order
+     */
+    public Map<Phase, Long> asMap() {
+        return Collections.unmodifiableMap(this.nanos);
+    }
+}
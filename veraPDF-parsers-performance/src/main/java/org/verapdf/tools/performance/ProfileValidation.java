@@ -0,0 +1,40 @@
+package org.verapdf.tools.performance;
+
+import org.verapdf.pdfa.results.ValidationResult;
+import org.verapdf.pdfa.validation.profiles.ValidationProfile;
+
+/**
+ * Result of one of the profiles validated together in a single walk of the parsed document.
+ */
+public class ProfileValidation {
+
+    private final ValidationProfile profile;
+    private final ValidationResult result;
+    private final long ruleNanos;
+
+    ProfileValidation(ValidationProfile profile, ValidationResult result, long ruleNanos) {
+        this.profile = profile;
+        this.result = result;
+        this.ruleNanos = ruleNanos;
+    }
+
+    public ValidationProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return result of the validation, or null if the profile has been skipped as it
+     * requires a PDF version incompatible with the main profile
+     */
+    public ValidationResult getResult() {
+        return result;
+    }
+
+    /**
+     * @return time in nanoseconds spent on evaluating rules of this profile, the walk
+     * of the object tree is shared by all profiles and is not included
+     */
+    public long getRuleNanos() {
+        return ruleNanos;
+    }
+}
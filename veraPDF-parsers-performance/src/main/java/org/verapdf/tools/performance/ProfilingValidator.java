@@ -0,0 +1,65 @@
+package org.verapdf.tools.performance;
+
+import org.verapdf.pdfa.validation.profiles.Rule;
+import org.verapdf.pdfa.validation.profiles.ValidationProfile;
+import org.verapdf.pdfa.validation.validators.BaseValidator;
+import org.verapdf.pdfa.validation.validators.FlavourValidator;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validator that measures every evaluation of a rule on an object and collects
+ * the costs into a {@link RuleProfile}. With several profiles the object tree is walked
+ * once for all of them and rule evaluation time is also summed per profile.
+ * Evaluations of deferred rules are performed by {@link BaseValidator} after the object
+ * tree has been walked and are not measured.
+ * The fail-fast limit of failed checks is not supported.
+ */
+public class ProfilingValidator extends BaseValidator {
+
+    private static final int MAX_DISPLAYED_FAILED_CHECKS = 100;
+
+    private final RuleProfile ruleProfile = new RuleProfile();
+    private final Map<ValidationProfile, long[]> profileNanos = new IdentityHashMap<>();
+
+    public ProfilingValidator(ValidationProfile profile, boolean logPassedChecks) {
+        this(Collections.singletonList(profile), logPassedChecks);
+    }
+
+    public ProfilingValidator(List<ValidationProfile> profiles, boolean logPassedChecks) {
+        super(profiles, MAX_DISPLAYED_FAILED_CHECKS, logPassedChecks, false, false);
+        for (ValidationProfile profile : profiles) {
+            this.profileNanos.put(profile, new long[1]);
+        }
+    }
+
+    @Override
+    public boolean firstProcessObjectWithRule(FlavourValidator flavourValidator,
+                                              org.verapdf.model.baselayer.Object checkObject,
+                                              String checkContext, Rule rule) {
+        long startTime = System.nanoTime();
+        boolean res = super.firstProcessObjectWithRule(flavourValidator, checkObject, checkContext, rule);
+        long nanos = System.nanoTime() - startTime;
+        this.ruleProfile.record(rule, checkObject.getObjectType(), nanos);
+        long[] total = this.profileNanos.get(flavourValidator.getProfile());
+        if (total != null) {
+            total[0] += nanos;
+        }
+        return res;
+    }
+
+    public RuleProfile getRuleProfile() {
+        return ruleProfile;
+    }
+
+    /**
+     * @return time in nanoseconds spent on evaluating rules of the profile
+     */
+    public long getRuleNanos(ValidationProfile profile) {
+        long[] total = this.profileNanos.get(profile);
+        return total == null ? 0 : total[0];
+    }
+}
@@ -0,0 +1,128 @@
+package org.verapdf.tools.performance;
+
+import org.verapdf.pdfa.validation.profiles.Rule;
+import org.verapdf.pdfa.validation.profiles.RuleId;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wall time and number of evaluations spent on every rule of a validation profile,
+ * also summarised by the type of the checked objects.
+ */
+public class RuleProfile {
+
+    private final Map<RuleId, RuleCost> rules = new HashMap<>();
+    private final Map<String, Cost> objectTypes = new HashMap<>();
+
+    void record(Rule rule, String objectType, long nanos) {
+        RuleCost ruleCost = this.rules.get(rule.getRuleId());
+        if (ruleCost == null) {
+            ruleCost = new RuleCost(rule.getRuleId(), rule.getObject());
+            this.rules.put(rule.getRuleId(), ruleCost);
+        }
+        ruleCost.add(nanos, 1);
+        Cost typeCost = this.objectTypes.get(objectType);
+        if (typeCost == null) {
+            typeCost = new Cost();
+            this.objectTypes.put(objectType, typeCost);
+        }
+        typeCost.add(nanos, 1);
+    }
+
+    /**
+     * Adds all costs of the other profile to this one.
+     */
+    public void merge(RuleProfile other) {
+        for (RuleCost cost : other.rules.values()) {
+            RuleCost ruleCost = this.rules.get(cost.getRuleId());
+            if (ruleCost == null) {
+                ruleCost = new RuleCost(cost.getRuleId(), cost.getObject());
+                this.rules.put(cost.getRuleId(), ruleCost);
+            }
+            ruleCost.add(cost.getNanos(), cost.getInvocations());
+        }
+        for (Map.Entry<String, Cost> entry : other.objectTypes.entrySet()) {
+            Cost typeCost = this.objectTypes.get(entry.getKey());
+            if (typeCost == null) {
+                typeCost = new Cost();
+                this.objectTypes.put(entry.getKey(), typeCost);
+            }
+            typeCost.add(entry.getValue().getNanos(), entry.getValue().getInvocations());
+        }
+    }
+
+    public boolean isEmpty() {
+        return this.rules.isEmpty();
+    }
+
+    /**
+     * @return time spent in all rule evaluations, in nanoseconds
+     */
+    public long getTotalNanos() {
+        long res = 0;
+        for (Cost cost : this.rules.values()) {
+            res += cost.getNanos();
+        }
+        return res;
+    }
+
+    /**
+     * @return rule costs, most expensive first
+     */
+    public List<RuleCost> getRankedRules() {
+        List<RuleCost> res = new ArrayList<>(this.rules.values());
+        res.sort((first, second) -> Long.compare(second.getNanos(), first.getNanos()));
+        return res;
+    }
+
+    /**
+     * @return costs by the type of the checked object, most expensive first
+     */
+    public List<Map.Entry<String, Cost>> getRankedObjectTypes() {
+        List<Map.Entry<String, Cost>> res = new ArrayList<>(this.objectTypes.entrySet());
+        res.sort((first, second) -> Long.compare(second.getValue().getNanos(), first.getValue().getNanos()));
+        return res;
+    }
+
+    public static class Cost {
+        private long nanos = 0;
+        private long invocations = 0;
+
+        void add(long nanos, long invocations) {
+            this.nanos += nanos;
+            this.invocations += invocations;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        public long getInvocations() {
+            return invocations;
+        }
+    }
+
+    public static class RuleCost extends Cost {
+        private final RuleId ruleId;
+        private final String object;
+
+        RuleCost(RuleId ruleId, String object) {
+            this.ruleId = ruleId;
+            this.object = object;
+        }
+
+        public RuleId getRuleId() {
+            return ruleId;
+        }
+
+        /**
+         * @return object type the rule is declared for in the profile
+         */
+        public String getObject() {
+            return object;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.verapdf.tools.performance;
+
+import org.verapdf.pdfa.PDFAValidator;
+import org.verapdf.pdfa.flavours.PDFAFlavour;
+import org.verapdf.pdfa.validation.profiles.Profiles;
+import org.verapdf.pdfa.validation.profiles.ValidationProfile;
+import org.verapdf.pdfa.validation.validators.ValidatorFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-thread cache of validators created by {@link ValidatorFactory}.
+ * A validator without failure limit resets its state at the start of every validation, so it may be reused
+ * sequentially, but not shared between threads. A fail-fast validator keeps its failure count and abort flag
+ * after reaching the limit, so with a positive failure limit a new validator is created for every validation
+ * and only the profile is reused.
+ */
+final class ValidatorCache {
+
+    private static final ThreadLocal<Map<Key, PDFAValidator>> VALIDATORS = ThreadLocal.withInitial(HashMap::new);
+
+    private ValidatorCache() {
+    }
+
+    static PDFAValidator getValidator(ValidationProfile profile, boolean logPassed, int maxFail) {
+        if (maxFail > 0) {
+            return ValidatorFactory.createValidator(profile, logPassed, maxFail);
+        }
+        return VALIDATORS.get().computeIfAbsent(new Key(profile, logPassed, maxFail),
+                key -> ValidatorFactory.createValidator(profile, logPassed, maxFail));
+    }
+
+    static PDFAValidator getValidator(PDFAFlavour flavour, boolean logPassed, int maxFail) {
+        if (maxFail > 0) {
+            return ValidatorFactory.createValidator(Profiles.getVeraProfileDirectory().getValidationProfileByFlavour(flavour),
+                    logPassed, maxFail);
+        }
+        return VALIDATORS.get().computeIfAbsent(new Key(flavour, logPassed, maxFail),
+                key -> ValidatorFactory.createValidator(flavour, logPassed, maxFail));
+    }
+
+    /**
+     * Profiles are compared by identity: the same loaded instance is shared for the whole run.
+     */
+    private static final class Key {
+        private final Object source;
+        private final boolean logPassed;
+        private final int maxFail;
+
+        private Key(Object source, boolean logPassed, int maxFail) {
+            this.source = source;
+            this.logPassed = logPassed;
+            this.maxFail = maxFail;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return this.source == key.source && this.logPassed == key.logPassed && this.maxFail == key.maxFail;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(this.source);
+            result = 31 * result + (this.logPassed ? 1 : 0);
+            result = 31 * result + this.maxFail;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.verapdf.tools.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.verapdf.tools.performance.Phase;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records of a previous run loaded from a JSON report, see {@link JsonReportWriter}.
+ * Files are matched by content hash and parser type, so renamed or moved files are still compared.
+ */
+public class Baseline {
+
+	/**
+	 * Phases faster than this in both runs are not compared, their timings are dominated by noise.
+	 */
+	private static final long MIN_COMPARED_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	private static final double NANOS_IN_MS = 1_000_000.0;
+
+	private final Map<String, BaselineRecord> records = new HashMap<>();
+
+	private Baseline() {
+	}
+
+	public static Baseline load(File report) throws IOException {
+		JsonNode root = new ObjectMapper().readTree(report);
+		if (root == null || !root.isArray()) {
+			throw new IOException("Baseline " + report.getAbsolutePath() + " is not a JSON performance report");
+		}
+		Baseline baseline = new Baseline();
+		for (JsonNode node : root) {
+			JsonNode hash = node.get("hash");
+			JsonNode parserType = node.get("parserType");
+			if (hash == null || hash.isNull() || parserType == null) {
+				continue;
+			}
+			BaselineRecord record = new BaselineRecord();
+			JsonNode timings = node.get("timings");
+			if (timings != null) {
+				for (Phase phase : Phase.values()) {
+					JsonNode value = timings.get(phase.name());
+					if (value != null && value.isNumber()) {
+						record.timings.put(phase, Long.valueOf(value.asLong()));
+					}
+				}
+			}
+			JsonNode compliant = node.get("compliant");
+			record.compliant = compliant == null || compliant.isNull() ? null : Boolean.valueOf(compliant.asBoolean());
+			JsonNode digest = node.get("assertionsDigest");
+			record.assertionsDigest = digest == null || digest.isNull() ? null : digest.asText();
+			JsonNode outcome = node.get("outcome");
+			record.outcome = outcome == null || outcome.isNull() ? Outcome.OK.name() : outcome.asText();
+			JsonNode instrumented = node.get("instrumentedValidation");
+			record.instrumentedValidation = instrumented != null && instrumented.asBoolean();
+			JsonNode flightRecorded = node.get("flightRecorded");
+			record.flightRecorded = flightRecorded != null && flightRecorded.asBoolean();
+			baseline.records.put(key(hash.asText(), parserType.asText()), record);
+		}
+		return baseline;
+	}
+
+	public boolean contains(FileRecord current) {
+		return this.records.containsKey(key(current));
+	}
+
+	/**
+	 * Compares the record with the matching baseline record.
+	 *
+	 * @param current record of the current run
+	 * @param thresholdPercent allowed slowdown of a phase, in percent of the baseline timing
+	 * @return descriptions of the detected regressions, empty if there are none or the file is not in the baseline
+	 */
+	public List<String> compare(FileRecord current, double thresholdPercent) {
+		List<String> regressions = new ArrayList<>();
+		BaselineRecord previous = this.records.get(key(current));
+		if (previous == null) {
+			return regressions;
+		}
+		if (current.getOutcome() != Outcome.OK && Outcome.OK.name().equals(previous.outcome)) {
+			regressions.add("Processing ended with " + current.getOutcome()
+					+ (current.getOutcomePhase() == null ? "" : " in phase " + current.getOutcomePhase().getDescription()));
+			return regressions;
+		}
+		// timings measured next to abandoned timed out files are skewed by them, timings measured with and
+		// without Flight Recorder running are not comparable, neither are compared
+		Map<Phase, Long> timings = current.getAbandonedWorkers() == 0 && previous.flightRecorded == current.isFlightRecorded()
+				? current.getTimings().asMap() : new EnumMap<>(Phase.class);
+		for (Map.Entry<Phase, Long> entry : timings.entrySet()) {
+			Long previousNanos = previous.timings.get(entry.getKey());
+			long currentNanos = entry.getValue().longValue();
+			if (previousNanos == null || Math.max(previousNanos.longValue(), currentNanos) < MIN_COMPARED_NANOS) {
+				continue;
+			}
+			// instrumented and plain validation times are not comparable
+			if (entry.getKey() == Phase.VALIDATION && previous.instrumentedValidation != current.isInstrumentedValidation()) {
+				continue;
+			}
+			double slowdown = (currentNanos - previousNanos.longValue()) * 100.0 / Math.max(previousNanos.longValue(), 1);
+			if (slowdown > thresholdPercent) {
+				regressions.add(String.format("%s slowed down from %.3f ms to %.3f ms (+%.1f%%)",
+						entry.getKey().getDescription(), Double.valueOf(previousNanos.longValue() / NANOS_IN_MS),
+						Double.valueOf(currentNanos / NANOS_IN_MS), Double.valueOf(slowdown)));
+			}
+		}
+		if (previous.compliant != null && current.getCompliant() != null
+				&& !previous.compliant.equals(current.getCompliant())) {
+			regressions.add("Compliance changed from " + previous.compliant + " to " + current.getCompliant());
+		}
+		if (previous.assertionsDigest != null && current.getAssertionsDigest() != null
+				&& !previous.assertionsDigest.equals(current.getAssertionsDigest())) {
+			regressions.add("Test assertions changed");
+		}
+		return regressions;
+	}
+
+	private static String key(FileRecord record) {
+		return key(record.getHash(), record.getParserType().name());
+	}
+
+	private static String key(String hash, String parserType) {
+		return hash + ' ' + parserType;
+	}
+
+	private static class BaselineRecord {
+		private final Map<Phase, Long> timings = new EnumMap<>(Phase.class);
+		private Boolean compliant;
+		private String assertionsDigest;
+		private String outcome;
+		private boolean instrumentedValidation;
+		private boolean flightRecorded;
+	}
+}
@@ -0,0 +1,100 @@
+package org.verapdf.tools.report;
+
+import org.verapdf.tools.performance.Phase;
+import org.verapdf.tools.performance.PhaseMemory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes records as RFC 4180 CSV lines, every record is flushed as soon as it is written.
+ * Phase timings are in nanoseconds, one column per {@link Phase}, empty if the phase has not been run.
+ * Memory consumption follows in four columns per {@link Phase}, empty if it has not been measured.
+ */
+public class CsvReportWriter implements ReportWriter {
+
+	private static final char SEPARATOR = ',';
+	private static final String LINE_END = "\r\n";
+
+	private final Writer writer;
+
+	public CsvReportWriter(OutputStream out) throws IOException {
+		this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		StringBuilder header = new StringBuilder("path,hash,size,pageCount,maxObjectNumber,flavour,parserType");
+		for (Phase phase : Phase.values()) {
+			header.append(SEPARATOR).append(phase.name());
+		}
+		for (Phase phase : Phase.values()) {
+			header.append(SEPARATOR).append(phase.name()).append("_ALLOCATED_BYTES")
+			      .append(SEPARATOR).append(phase.name()).append("_PEAK_HEAP_BYTES")
+			      .append(SEPARATOR).append(phase.name()).append("_GC_COUNT")
+			      .append(SEPARATOR).append(phase.name()).append("_GC_TIME_MS");
+		}
+		header.append(SEPARATOR).append("failedRules,compliant,assertionsDigest,outcome,outcomePhase,abandonedWorkers,instrumentedValidation,flightRecorded");
+		this.writer.write(header.append(LINE_END).toString());
+		this.writer.flush();
+	}
+
+	@Override
+	public void write(FileRecord record) throws IOException {
+		StringBuilder line = new StringBuilder();
+		line.append(escape(record.getPath())).append(SEPARATOR)
+		    .append(valueOf(record.getHash())).append(SEPARATOR)
+		    .append(record.getSize()).append(SEPARATOR)
+		    .append(valueOf(record.getPageCount())).append(SEPARATOR)
+		    .append(valueOf(record.getMaxObjectNumber())).append(SEPARATOR)
+		    .append(escape(record.getFlavour())).append(SEPARATOR)
+		    .append(record.getParserType().name());
+		for (Phase phase : Phase.values()) {
+			line.append(SEPARATOR);
+			if (record.getTimings().isMeasured(phase)) {
+				line.append(record.getTimings().getNanos(phase));
+			}
+		}
+		for (Phase phase : Phase.values()) {
+			PhaseMemory memory = record.getMemoryUsage().get(phase);
+			if (memory == null) {
+				line.append(SEPARATOR).append(SEPARATOR).append(SEPARATOR).append(SEPARATOR);
+			} else {
+				line.append(SEPARATOR).append(memory.getAllocatedBytes())
+				    .append(SEPARATOR).append(memory.getPeakHeapBytes())
+				    .append(SEPARATOR).append(memory.getGcCount())
+				    .append(SEPARATOR).append(memory.getGcTimeMillis());
+			}
+		}
+		line.append(SEPARATOR).append(valueOf(record.getFailedRules()))
+		    .append(SEPARATOR).append(valueOf(record.getCompliant()))
+		    .append(SEPARATOR).append(valueOf(record.getAssertionsDigest()))
+		    .append(SEPARATOR).append(record.getOutcome().name())
+		    .append(SEPARATOR).append(record.getOutcomePhase() == null ? "" : record.getOutcomePhase().name())
+		    .append(SEPARATOR).append(record.getAbandonedWorkers())
+		    .append(SEPARATOR).append(record.isInstrumentedValidation())
+		    .append(SEPARATOR).append(record.isFlightRecorded());
+		this.writer.write(line.append(LINE_END).toString());
+		this.writer.flush();
+	}
+
+	private static String valueOf(Object value) {
+		return value == null ? "" : value.toString();
+	}
+
+	private static String escape(String value) {
+		if (value == null) {
+			return "";
+		}
+		if (value.indexOf(SEPARATOR) < 0 && value.indexOf('"') < 0
+				&& value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+			return value;
+		}
+		return '"' + value.replace("\"", "\"\"") + '"';
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.writer.close();
+	}
+}
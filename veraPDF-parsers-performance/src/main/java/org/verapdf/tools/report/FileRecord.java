@@ -0,0 +1,208 @@
+package org.verapdf.tools.report;
+
+import org.verapdf.tools.performance.ModelParserType;
+import org.verapdf.tools.performance.Phase;
+import org.verapdf.tools.performance.PhaseMemoryUsage;
+import org.verapdf.tools.performance.PhaseTimings;
+
+import java.io.Serializable;
+
+/**
+ * Measurements of one file processed by one parser, a single line of a machine-readable report.
+ */
+public class FileRecord implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String path;
+	private String hash;
+	private long size;
+	private Integer pageCount;
+	private Integer maxObjectNumber;
+	private String flavour;
+	private ModelParserType parserType;
+	private PhaseTimings timings;
+	private PhaseMemoryUsage memoryUsage;
+	private Integer failedRules;
+	private Boolean compliant;
+	private String assertionsDigest;
+	private Outcome outcome = Outcome.OK;
+	private Phase outcomePhase;
+	private int abandonedWorkers;
+	private boolean instrumentedValidation;
+	private boolean flightRecorded;
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	/**
+	 * @return hex encoded SHA-256 of the file content
+	 */
+	public String getHash() {
+		return hash;
+	}
+
+	public void setHash(String hash) {
+		this.hash = hash;
+	}
+
+	/**
+	 * @return file size in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	/**
+	 * @return number of pages, or null if the parser does not provide it
+	 */
+	public Integer getPageCount() {
+		return pageCount;
+	}
+
+	public void setPageCount(Integer pageCount) {
+		this.pageCount = pageCount;
+	}
+
+	/**
+	 * @return the greatest object number declared in cross-reference data, or null if the parser does not provide it
+	 */
+	public Integer getMaxObjectNumber() {
+		return maxObjectNumber;
+	}
+
+	public void setMaxObjectNumber(Integer maxObjectNumber) {
+		this.maxObjectNumber = maxObjectNumber;
+	}
+
+	/**
+	 * @return id of the validated flavour
+	 */
+	public String getFlavour() {
+		return flavour;
+	}
+
+	public void setFlavour(String flavour) {
+		this.flavour = flavour;
+	}
+
+	public ModelParserType getParserType() {
+		return parserType;
+	}
+
+	public void setParserType(ModelParserType parserType) {
+		this.parserType = parserType;
+	}
+
+	public PhaseTimings getTimings() {
+		return timings;
+	}
+
+	public void setTimings(PhaseTimings timings) {
+		this.timings = timings;
+	}
+
+	public PhaseMemoryUsage getMemoryUsage() {
+		return memoryUsage;
+	}
+
+	public void setMemoryUsage(PhaseMemoryUsage memoryUsage) {
+		this.memoryUsage = memoryUsage;
+	}
+
+	/**
+	 * @return number of distinct failed rules, or null if validation has not been performed
+	 */
+	public Integer getFailedRules() {
+		return failedRules;
+	}
+
+	public void setFailedRules(Integer failedRules) {
+		this.failedRules = failedRules;
+	}
+
+	/**
+	 * @return validation verdict, or null if validation has not been performed
+	 */
+	public Boolean getCompliant() {
+		return compliant;
+	}
+
+	public void setCompliant(Boolean compliant) {
+		this.compliant = compliant;
+	}
+
+	/**
+	 * @return order and context independent digest of the test assertions,
+	 * or null if validation has not been performed
+	 */
+	public String getAssertionsDigest() {
+		return assertionsDigest;
+	}
+
+	public void setAssertionsDigest(String assertionsDigest) {
+		this.assertionsDigest = assertionsDigest;
+	}
+
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	public void setOutcome(Outcome outcome) {
+		this.outcome = outcome;
+	}
+
+	/**
+	 * @return phase that was running when processing ended abnormally, or null if the outcome is {@link Outcome#OK}
+	 */
+	public Phase getOutcomePhase() {
+		return outcomePhase;
+	}
+
+	public void setOutcomePhase(Phase outcomePhase) {
+		this.outcomePhase = outcomePhase;
+	}
+
+	/**
+	 * @return number of timed out files that were still running while the file was measured,
+	 * the timings of the file are not reliable if it is not 0
+	 */
+	public int getAbandonedWorkers() {
+		return abandonedWorkers;
+	}
+
+	public void setAbandonedWorkers(int abandonedWorkers) {
+		this.abandonedWorkers = abandonedWorkers;
+	}
+
+	/**
+	 * @return true if every rule evaluation has been timed during validation, which makes the validation time longer
+	 */
+	public boolean isInstrumentedValidation() {
+		return instrumentedValidation;
+	}
+
+	public void setInstrumentedValidation(boolean instrumentedValidation) {
+		this.instrumentedValidation = instrumentedValidation;
+	}
+
+	/**
+	 * @return true if Java Flight Recorder was running while the file was processed, which makes all phases slower
+	 */
+	public boolean isFlightRecorded() {
+		return flightRecorded;
+	}
+
+	public void setFlightRecorded(boolean flightRecorded) {
+		this.flightRecorded = flightRecorded;
+	}
+}
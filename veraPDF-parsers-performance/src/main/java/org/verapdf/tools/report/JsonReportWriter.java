@@ -0,0 +1,81 @@
+package org.verapdf.tools.report;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.verapdf.tools.performance.Phase;
+import org.verapdf.tools.performance.PhaseMemory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * Writes records as elements of a single JSON array, every record is flushed as soon as it is written.
+ */
+public class JsonReportWriter implements ReportWriter {
+
+	private final JsonGenerator generator;
+
+	public JsonReportWriter(OutputStream out) throws IOException {
+		this.generator = new JsonFactory().createGenerator(out, JsonEncoding.UTF8);
+		this.generator.useDefaultPrettyPrinter();
+		this.generator.writeStartArray();
+	}
+
+	@Override
+	public void write(FileRecord record) throws IOException {
+		this.generator.writeStartObject();
+		this.generator.writeStringField("path", record.getPath());
+		this.generator.writeStringField("hash", record.getHash());
+		this.generator.writeNumberField("size", record.getSize());
+		writeNullableNumber("pageCount", record.getPageCount());
+		writeNullableNumber("maxObjectNumber", record.getMaxObjectNumber());
+		this.generator.writeStringField("flavour", record.getFlavour());
+		this.generator.writeStringField("parserType", record.getParserType().name());
+		this.generator.writeObjectFieldStart("timings");
+		for (Map.Entry<Phase, Long> entry : record.getTimings().asMap().entrySet()) {
+			this.generator.writeNumberField(entry.getKey().name(), entry.getValue().longValue());
+		}
+		this.generator.writeEndObject();
+		this.generator.writeObjectFieldStart("memory");
+		for (Map.Entry<Phase, PhaseMemory> entry : record.getMemoryUsage().asMap().entrySet()) {
+			PhaseMemory memory = entry.getValue();
+			this.generator.writeObjectFieldStart(entry.getKey().name());
+			this.generator.writeNumberField("allocatedBytes", memory.getAllocatedBytes());
+			this.generator.writeNumberField("peakHeapBytes", memory.getPeakHeapBytes());
+			this.generator.writeNumberField("gcCount", memory.getGcCount());
+			this.generator.writeNumberField("gcTimeMillis", memory.getGcTimeMillis());
+			this.generator.writeEndObject();
+		}
+		this.generator.writeEndObject();
+		writeNullableNumber("failedRules", record.getFailedRules());
+		if (record.getCompliant() == null) {
+			this.generator.writeNullField("compliant");
+		} else {
+			this.generator.writeBooleanField("compliant", record.getCompliant().booleanValue());
+		}
+		this.generator.writeStringField("assertionsDigest", record.getAssertionsDigest());
+		this.generator.writeStringField("outcome", record.getOutcome().name());
+		this.generator.writeStringField("outcomePhase", record.getOutcomePhase() == null ? null : record.getOutcomePhase().name());
+		this.generator.writeNumberField("abandonedWorkers", record.getAbandonedWorkers());
+		this.generator.writeBooleanField("instrumentedValidation", record.isInstrumentedValidation());
+		this.generator.writeBooleanField("flightRecorded", record.isFlightRecorded());
+		this.generator.writeEndObject();
+		this.generator.flush();
+	}
+
+	private void writeNullableNumber(String name, Integer value) throws IOException {
+		if (value == null) {
+			this.generator.writeNullField(name);
+		} else {
+			this.generator.writeNumberField(name, value.intValue());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		this.generator.writeEndArray();
+		this.generator.close();
+	}
+}
@@ -0,0 +1,28 @@
+package org.verapdf.tools.report;
+
+/**
+ * How processing of a file ended.
+ */
+public enum Outcome {
+	OK,
+	/**
+	 * Processing has failed with an exception.
+	 */
+	ERROR,
+	/**
+	 * Processing has exceeded the wall clock budget and has been abandoned.
+	 */
+	TIMEOUT,
+	/**
+	 * The isolated worker processing the file has run out of memory.
+	 */
+	OUT_OF_MEMORY,
+	/**
+	 * The isolated worker processing the file has terminated without a result.
+	 */
+	CRASH,
+	/**
+	 * Processing has not been started, because too many timed out files are still running.
+	 */
+	NOT_STARTED
+}
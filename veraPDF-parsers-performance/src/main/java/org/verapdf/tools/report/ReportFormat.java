@@ -0,0 +1,27 @@
+package org.verapdf.tools.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Supported machine-readable report formats.
+ */
+public enum ReportFormat {
+	JSON {
+		@Override
+		public ReportWriter createWriter(OutputStream out) throws IOException {
+			return new JsonReportWriter(out);
+		}
+	},
+	CSV {
+		@Override
+		public ReportWriter createWriter(OutputStream out) throws IOException {
+			return new CsvReportWriter(out);
+		}
+	};
+
+	/**
+	 * Creates writer of this format, closing the writer closes the given stream.
+	 */
+	public abstract ReportWriter createWriter(OutputStream out) throws IOException;
+}
@@ -0,0 +1,13 @@
+package org.verapdf.tools.report;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streams {@link FileRecord}s to an output as they are produced, nothing is kept in memory
+ * between two calls of {@link #write(FileRecord)}.
+ */
+public interface ReportWriter extends Closeable {
+
+	void write(FileRecord record) throws IOException;
+}
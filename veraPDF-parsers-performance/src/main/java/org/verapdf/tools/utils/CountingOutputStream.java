@@ -0,0 +1,28 @@
+package org.verapdf.tools.utils;
+
+import java.io.OutputStream;
+
+/**
+ * Output stream that discards everything written to it and only counts the bytes.
+ */
+public final class CountingOutputStream extends OutputStream {
+
+	private long count = 0;
+
+	@Override
+	public void write(int b) {
+		++this.count;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) {
+		this.count += len;
+	}
+
+	/**
+	 * @return number of bytes written so far
+	 */
+	public long getCount() {
+		return this.count;
+	}
+}
@@ -0,0 +1,70 @@
+package org.verapdf.tools.utils;
+
+import org.verapdf.pdfa.results.TestAssertion;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * SHA-256 digests used to recognise the same file and the same validation outcome between runs.
+ */
+public final class Digests {
+
+	private static final String ALGORITHM = "SHA-256";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private Digests() {
+	}
+
+	/**
+	 * @return hex encoded digest of the file content
+	 */
+	public static String ofFile(File file) throws IOException {
+		MessageDigest digest = createDigest();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream is = new FileInputStream(file)) {
+			int bytesRead;
+			while ((bytesRead = is.read(buffer)) != -1) {
+				digest.update(buffer, 0, bytesRead);
+			}
+		}
+		return toHex(digest.digest());
+	}
+
+	/**
+	 * @return hex encoded digest of the assertions, independent of their order and location context.
+	 * It is built from the counted assertion keys of {@link TestAssertionMultiset}, the assertions are not sorted.
+	 */
+	public static String ofAssertions(List<TestAssertion> assertions) {
+		long[] countedKeys = TestAssertionMultiset.countKeys(assertions);
+		ByteBuffer bytes = ByteBuffer.allocate(countedKeys.length * Long.BYTES);
+		bytes.asLongBuffer().put(countedKeys);
+		MessageDigest digest = createDigest();
+		digest.update(bytes.array());
+		return toHex(digest.digest());
+	}
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(ALGORITHM + " is not supported", e);
+		}
+	}
+
+	private static String toHex(byte[] bytes) {
+		char[] res = new char[bytes.length * 2];
+		for (int i = 0; i < bytes.length; ++i) {
+			res[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+			res[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+		}
+		return new String(res);
+	}
+}
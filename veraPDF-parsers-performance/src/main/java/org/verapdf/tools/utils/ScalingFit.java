@@ -0,0 +1,87 @@
+package org.verapdf.tools.utils;
+
+/**
+ * Least squares fit of a power law {@code y = coefficient * x^exponent} on log-log scale.
+ * An exponent above 1 means that y grows super-linearly with x.
+ */
+public final class ScalingFit {
+
+	private final int count;
+	private final double exponent;
+	private final double coefficient;
+	private final double rSquared;
+
+	private ScalingFit(int count, double exponent, double coefficient, double rSquared) {
+		this.count = count;
+		this.exponent = exponent;
+		this.coefficient = coefficient;
+		this.rSquared = rSquared;
+	}
+
+	/**
+	 * Points with non-positive coordinates are ignored.
+	 *
+	 * @return the fit, or null if there are less than two points with different x
+	 */
+	public static ScalingFit fit(double[] x, double[] y) {
+		if (x.length != y.length) {
+			throw new IllegalArgumentException("Coordinate arrays must have the same length");
+		}
+		int count = 0;
+		double sumX = 0;
+		double sumY = 0;
+		for (int i = 0; i < x.length; ++i) {
+			if (x[i] > 0 && y[i] > 0) {
+				++count;
+				sumX += Math.log(x[i]);
+				sumY += Math.log(y[i]);
+			}
+		}
+		if (count < 2) {
+			return null;
+		}
+		double meanX = sumX / count;
+		double meanY = sumY / count;
+		double sxx = 0;
+		double sxy = 0;
+		double syy = 0;
+		for (int i = 0; i < x.length; ++i) {
+			if (x[i] > 0 && y[i] > 0) {
+				double dx = Math.log(x[i]) - meanX;
+				double dy = Math.log(y[i]) - meanY;
+				sxx += dx * dx;
+				sxy += dx * dy;
+				syy += dy * dy;
+			}
+		}
+		if (sxx == 0) {
+			return null;
+		}
+		double exponent = sxy / sxx;
+		double coefficient = Math.exp(meanY - exponent * meanX);
+		double rSquared = syy == 0 ? 1 : sxy * sxy / (sxx * syy);
+		return new ScalingFit(count, exponent, coefficient, rSquared);
+	}
+
+	/**
+	 * @return number of points the fit is based on
+	 */
+	public int getCount() {
+		return this.count;
+	}
+
+	public double getExponent() {
+		return this.exponent;
+	}
+
+	public double getCoefficient() {
+		return this.coefficient;
+	}
+
+	/**
+	 * @return coefficient of determination of the fit on log-log scale
+	 */
+	public double getRSquared() {
+		return this.rSquared;
+	}
+}
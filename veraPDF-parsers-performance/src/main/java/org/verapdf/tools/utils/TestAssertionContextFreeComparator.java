@@ -15,7 +15,10 @@ public class TestAssertionContextFreeComparator implements Comparator<TestAssert
 		return ruleIDWithStatus(first).compareTo(ruleIDWithStatus(second));
 	}
 
-	private static String ruleIDWithStatus(TestAssertion assertion) {
+	/**
+	 * @return the key assertions are compared by: rule id and status, without location context
+	 */
+	public static String ruleIDWithStatus(TestAssertion assertion) {
 		RuleId ruleId = assertion.getRuleId();
 		return ruleId.getSpecification().toString() + " " + ruleId.getClause() + " " + ruleId.getTestNumber() + " " + assertion.getStatus();
 	}
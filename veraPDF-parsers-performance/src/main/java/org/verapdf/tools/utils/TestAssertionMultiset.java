@@ -0,0 +1,204 @@
+package org.verapdf.tools.utils;
+
+import org.verapdf.pdfa.results.TestAssertion;
+import org.verapdf.pdfa.validation.profiles.RuleId;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares assertion lists as multisets of their context-free fields, see
+ * {@link TestAssertionContextFreeComparator}. Every assertion is reduced to a 64-bit hash and counted
+ * in an open addressing table, so the comparison is linear and does not copy or sort the lists.
+ */
+public final class TestAssertionMultiset {
+
+	private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private boolean[] used;
+	private int[] firstCounts;
+	private int[] secondCounts;
+	private int mask;
+	private int size = 0;
+
+	/**
+	 * The table is sized by distinct rule and status pairs, not by the number of assertions.
+	 */
+	private TestAssertionMultiset() {
+		allocate(MIN_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.used = new boolean[capacity];
+		this.firstCounts = new int[capacity];
+		this.secondCounts = new int[capacity];
+		this.mask = capacity - 1;
+	}
+
+	/**
+	 * @return true if both lists contain the same assertions regardless of order and location context
+	 */
+	public static boolean equals(List<TestAssertion> first, List<TestAssertion> second) {
+		return first.size() == second.size() && findFirstDifference(first, second) == null;
+	}
+
+	/**
+	 * @return the first assertion, in list order, whose number of occurrences differs between the lists,
+	 * or null if there is no such assertion
+	 */
+	public static Difference findFirstDifference(List<TestAssertion> first, List<TestAssertion> second) {
+		TestAssertionMultiset multiset = new TestAssertionMultiset();
+		for (TestAssertion assertion : first) {
+			int slot = multiset.slot(key(assertion));
+			++multiset.firstCounts[slot];
+		}
+		for (TestAssertion assertion : second) {
+			int slot = multiset.slot(key(assertion));
+			++multiset.secondCounts[slot];
+		}
+		Difference difference = multiset.findDifference(first);
+		return difference != null ? difference : multiset.findDifference(second);
+	}
+
+	/**
+	 * @return distinct assertion keys in ascending order, each followed by its number of occurrences,
+	 * the same for any order of the assertions
+	 */
+	static long[] countKeys(List<TestAssertion> assertions) {
+		TestAssertionMultiset multiset = new TestAssertionMultiset();
+		for (TestAssertion assertion : assertions) {
+			int slot = multiset.slot(key(assertion));
+			++multiset.firstCounts[slot];
+		}
+		long[] sortedKeys = new long[multiset.size];
+		int index = 0;
+		for (int i = 0; i < multiset.keys.length; ++i) {
+			if (multiset.used[i]) {
+				sortedKeys[index++] = multiset.keys[i];
+			}
+		}
+		Arrays.sort(sortedKeys);
+		long[] res = new long[2 * sortedKeys.length];
+		for (int i = 0; i < sortedKeys.length; ++i) {
+			res[2 * i] = sortedKeys[i];
+			res[2 * i + 1] = multiset.firstCounts[multiset.find(sortedKeys[i])];
+		}
+		return res;
+	}
+
+	private Difference findDifference(List<TestAssertion> assertions) {
+		for (TestAssertion assertion : assertions) {
+			int slot = slot(key(assertion));
+			if (this.firstCounts[slot] != this.secondCounts[slot]) {
+				return new Difference(assertion, this.firstCounts[slot], this.secondCounts[slot]);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return index of the key in the table, the key is inserted if it is absent
+	 */
+	private int slot(long key) {
+		int index = find(key);
+		if (this.used[index]) {
+			return index;
+		}
+		if (2 * (this.size + 1) > this.keys.length) {
+			grow();
+			index = find(key);
+		}
+		this.used[index] = true;
+		this.keys[index] = key;
+		++this.size;
+		return index;
+	}
+
+	/**
+	 * @return index of the key, or of the free slot where it should be inserted
+	 */
+	private int find(long key) {
+		int index = (int) (key ^ (key >>> 32)) & this.mask;
+		while (this.used[index] && this.keys[index] != key) {
+			index = (index + 1) & this.mask;
+		}
+		return index;
+	}
+
+	private void grow() {
+		long[] oldKeys = this.keys;
+		boolean[] oldUsed = this.used;
+		int[] oldFirstCounts = this.firstCounts;
+		int[] oldSecondCounts = this.secondCounts;
+		allocate(oldKeys.length * 2);
+		for (int i = 0; i < oldKeys.length; ++i) {
+			if (oldUsed[i]) {
+				int index = find(oldKeys[i]);
+				this.used[index] = true;
+				this.keys[index] = oldKeys[i];
+				this.firstCounts[index] = oldFirstCounts[i];
+				this.secondCounts[index] = oldSecondCounts[i];
+			}
+		}
+	}
+
+	/**
+	 * FNV-1a hash of the fields {@link TestAssertionContextFreeComparator#ruleIDWithStatus(TestAssertion)}
+	 * is built from, computed without creating the key string.
+	 */
+	private static long key(TestAssertion assertion) {
+		RuleId ruleId = assertion.getRuleId();
+		long hash = mix(FNV_OFFSET, ruleId.getSpecification().ordinal());
+		String clause = ruleId.getClause();
+		for (int i = 0; i < clause.length(); ++i) {
+			hash = (hash ^ clause.charAt(i)) * FNV_PRIME;
+		}
+		hash = mix(hash, ruleId.getTestNumber());
+		return mix(hash, assertion.getStatus().ordinal());
+	}
+
+	private static long mix(long hash, int value) {
+		long res = hash;
+		for (int shift = 0; shift < Integer.SIZE; shift += Byte.SIZE) {
+			res = (res ^ ((value >>> shift) & 0xFF)) * FNV_PRIME;
+		}
+		return res;
+	}
+
+	/**
+	 * Assertion that occurs a different number of times in the compared lists.
+	 */
+	public static final class Difference {
+		private final TestAssertion assertion;
+		private final int firstCount;
+		private final int secondCount;
+
+		private Difference(TestAssertion assertion, int firstCount, int secondCount) {
+			this.assertion = assertion;
+			this.firstCount = firstCount;
+			this.secondCount = secondCount;
+		}
+
+		public TestAssertion getAssertion() {
+			return this.assertion;
+		}
+
+		public int getFirstCount() {
+			return this.firstCount;
+		}
+
+		public int getSecondCount() {
+			return this.secondCount;
+		}
+
+		@Override
+		public String toString() {
+			return TestAssertionContextFreeComparator.ruleIDWithStatus(this.assertion) + ": "
+					+ this.firstCount + " vs " + this.secondCount;
+		}
+	}
+}
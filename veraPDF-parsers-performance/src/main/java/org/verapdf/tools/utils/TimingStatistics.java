@@ -0,0 +1,88 @@
+package org.verapdf.tools.utils;
+
+import java.util.Arrays;
+
+/**
+ * Order statistics and spread of a set of duration samples, all values are in nanoseconds.
+ * Percentiles use the nearest-rank method.
+ */
+public class TimingStatistics {
+
+	private final int count;
+	private final long min;
+	private final long median;
+	private final long p90;
+	private final long p99;
+	private final long max;
+	private final double mean;
+	private final double standardDeviation;
+
+	private TimingStatistics(long[] sorted) {
+		this.count = sorted.length;
+		this.min = sorted[0];
+		this.median = percentile(sorted, 50);
+		this.p90 = percentile(sorted, 90);
+		this.p99 = percentile(sorted, 99);
+		this.max = sorted[sorted.length - 1];
+		double sum = 0;
+		for (long sample : sorted) {
+			sum += sample;
+		}
+		this.mean = sum / sorted.length;
+		double squares = 0;
+		for (long sample : sorted) {
+			double deviation = sample - this.mean;
+			squares += deviation * deviation;
+		}
+		this.standardDeviation = sorted.length > 1 ? Math.sqrt(squares / (sorted.length - 1)) : 0;
+	}
+
+	public static TimingStatistics fromNanos(long[] samples) {
+		if (samples == null || samples.length == 0) {
+			throw new IllegalArgumentException("Can not calculate statistics without samples");
+		}
+		long[] sorted = Arrays.copyOf(samples, samples.length);
+		Arrays.sort(sorted);
+		return new TimingStatistics(sorted);
+	}
+
+	private static long percentile(long[] sorted, int percent) {
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(rank, 1) - 1];
+	}
+
+	public int getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMedian() {
+		return median;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	/**
+	 * @return sample standard deviation, 0 for a single sample
+	 */
+	public double getStandardDeviation() {
+		return standardDeviation;
+	}
+}
@@ -0,0 +1,71 @@
+package org.verapdf.tools.cli;
+
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class WorkerPoolTest {
+
+	private static final File FILE = new File("test.pdf");
+
+	@Test
+	public void killsWorkerThatNeverReplies() throws Exception {
+		try (WorkerPool pool = new WorkerPool(workerCommand(SilentWorker.class), 1, 1)) {
+			for (int i = 0; i < 2; i++) {
+				long start = System.nanoTime();
+				try {
+					pool.process(FILE, null);
+					fail("Worker has not replied, but no timeout is reported");
+				} catch (WorkerPool.WorkerTimeoutException e) {
+					long seconds = (System.nanoTime() - start) / 1_000_000_000L;
+					// the second request proves the killed worker has been restarted
+					assertTrue("Timed out after " + seconds + " s", seconds < 10);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void reportsExitCodeOfCrashedWorker() throws Exception {
+		try (WorkerPool pool = new WorkerPool(workerCommand(OutOfMemoryWorker.class), 1, 0)) {
+			try {
+				pool.process(FILE, null);
+				fail("Worker has terminated, but no failure is reported");
+			} catch (WorkerPool.WorkerFailedException e) {
+				assertEquals(WorkerPool.OUT_OF_MEMORY_EXIT_CODE, e.getExitCode());
+			}
+		}
+	}
+
+	private static List<String> workerCommand(Class<?> mainClass) {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		return Arrays.asList(java, "-cp", System.getProperty("java.class.path"), mainClass.getName());
+	}
+
+	public static final class SilentWorker {
+
+		public static void main(String[] args) throws IOException {
+			// reads requests until the pool is closed, but never answers them
+			BufferedReader requests = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+			while (requests.readLine() != null) {
+			}
+		}
+	}
+
+	public static final class OutOfMemoryWorker {
+
+		public static void main(String[] args) {
+			System.exit(WorkerPool.OUT_OF_MEMORY_EXIT_CODE);
+		}
+	}
+}